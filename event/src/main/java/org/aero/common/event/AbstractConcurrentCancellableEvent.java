@@ -0,0 +1,51 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Represents an event which can be cancelled and is safe to be handled by several threads. A cancellation is published
+ * with release semantics and read with acquire semantics, so every listener and the callback of
+ * {@link EventBus#callCancellable(Object, Runnable)} observe it once the cancelling listener returned.
+ */
+public abstract class AbstractConcurrentCancellableEvent implements CancellableEvent {
+
+    private static final VarHandle CANCELLED;
+
+    static {
+        try {
+            CANCELLED = MethodHandles.lookup().findVarHandle(AbstractConcurrentCancellableEvent.class, "cancelled", boolean.class);
+        } catch (final ReflectiveOperationException exception) {
+            throw new ExceptionInInitializerError(exception);
+        }
+    }
+
+    @SuppressWarnings({"unused", "FieldMayBeFinal"})
+    private boolean cancelled = false;
+
+    @Override
+    public boolean isCancelled() {
+        return (boolean) CANCELLED.getAcquire(this);
+    }
+
+    @Override
+    public void cancelled(final boolean cancel) {
+        CANCELLED.setRelease(this, cancel);
+    }
+}
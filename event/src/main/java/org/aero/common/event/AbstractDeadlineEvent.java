@@ -0,0 +1,46 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.aero.common.core.validate.Check;
+import org.jetbrains.annotations.NotNull;
+
+import java.time.Duration;
+
+/**
+ * Represents an event with a deadline which is already implemented. The deadline is computed from the time to live
+ * when the event is created.
+ */
+public abstract class AbstractDeadlineEvent implements DeadlineEvent {
+
+    private final long deadline;
+
+    /**
+     * Constructs a new event which expires after the given time to live.
+     *
+     * @param timeToLive the duration after which the event expires
+     */
+    protected AbstractDeadlineEvent(@NotNull final Duration timeToLive) {
+        Check.notNull(timeToLive, "timeToLive");
+        this.deadline = System.nanoTime() + timeToLive.toNanos();
+    }
+
+    @Override
+    public long deadline() {
+        return this.deadline;
+    }
+}
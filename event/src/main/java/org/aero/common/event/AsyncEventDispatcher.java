@@ -0,0 +1,106 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.aero.common.core.builder.IBuilder;
+import org.aero.common.core.validate.Check;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a dispatcher which queues events and calls them on an {@link EventBus} from a dedicated thread.
+ *
+ * <p>Events are queued on lanes, where lane 0 has the highest priority. The dispatcher drains the lanes in rounds, in
+ * every round each lane may dispatch up to its weight in events, starting with the lane of the highest priority. So a
+ * flood of events on a low priority lane never delays events on a higher one for more than a round, while lower lanes
+ * are not starved either.
+ */
+public sealed interface AsyncEventDispatcher extends AutoCloseable permits AsyncEventDispatcherImpl {
+
+    /**
+     * Creates a new {@link Builder} for a dispatcher.
+     *
+     * @param eventBus the event bus to call the events on
+     * @return the created dispatcher builder
+     */
+    static @NotNull Builder builder(@NotNull final EventBus eventBus) {
+        Check.notNull(eventBus, "eventBus");
+        return new AsyncEventDispatcherImpl.BuilderImpl(eventBus);
+    }
+
+    /**
+     * Queues an event to be called on the event bus.
+     *
+     * @param event the event to queue
+     * @throws IllegalStateException if the dispatcher is closed
+     */
+    void enqueue(@NotNull Object event);
+
+    /**
+     * Returns the amount of queued events which were not dispatched yet.
+     *
+     * @return the amount of pending events
+     */
+    int pending();
+
+    /**
+     * Stops accepting new events, dispatches the pending events and stops the dispatcher thread.
+     */
+    @Override
+    void close();
+
+    /**
+     * Represents a builder for a dispatcher.
+     */
+    sealed interface Builder extends IBuilder<AsyncEventDispatcher> permits AsyncEventDispatcherImpl.BuilderImpl {
+
+        /**
+         * Sets the lanes of the dispatcher by their weights, the first weight belongs to lane 0. The weight of a lane
+         * is the amount of events it may dispatch per round. The default is a single lane.
+         *
+         * @param weights the weights of the lanes
+         * @return this builder, for chaining
+         */
+        @NotNull Builder lanes(int @NotNull ... weights);
+
+        /**
+         * Queues events of the given class and its subclasses on the given lane. Events of classes without a lane are
+         * queued on the lane with the lowest priority.
+         *
+         * @param type the event class
+         * @param lane the lane
+         * @return this builder, for chaining
+         * @see LanedEvent
+         */
+        @NotNull Builder lane(@NotNull Class<?> type, int lane);
+
+        /**
+         * Sets the name of the dispatcher thread.
+         *
+         * @param threadName the name of the thread
+         * @return this builder, for chaining
+         */
+        @NotNull Builder threadName(@NotNull String threadName);
+
+        /**
+         * Builds the dispatcher and starts its thread.
+         *
+         * @return the started dispatcher
+         */
+        @Override
+        @NotNull AsyncEventDispatcher build();
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.aero.common.core.validate.Check;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+final class AsyncEventDispatcherImpl implements AsyncEventDispatcher {
+
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final EventBus eventBus;
+    private final Queue<Object>[] lanes;
+    private final int[] weights;
+    private final ClassValue<Integer> classLanes;
+    private final AtomicInteger pending;
+    private final Thread worker;
+
+    private volatile boolean running = true;
+    private volatile boolean parked = false;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    AsyncEventDispatcherImpl(final BuilderImpl builder) {
+        this.eventBus = builder.eventBus;
+        this.weights = builder.weights.clone();
+        this.lanes = new Queue[this.weights.length];
+        for (int i = 0; i < this.lanes.length; i++) {
+            this.lanes[i] = new ConcurrentLinkedQueue<>();
+        }
+
+        final Map<Class<?>, Integer> typeLanes = new HashMap<>(builder.typeLanes);
+        final int lowestLane = this.lanes.length - 1;
+        this.classLanes = new ClassValue<>() {
+            @Override
+            protected Integer computeValue(final Class<?> type) {
+                for (final Class<?> superType : EventTypeHierarchy.of(type)) {
+                    final Integer lane = typeLanes.get(superType);
+                    if (lane != null) {
+                        return Math.min(lane, lowestLane);
+                    }
+                }
+                return lowestLane;
+            }
+        };
+        this.pending = new AtomicInteger();
+
+        this.worker = new Thread(this::run, builder.threadName);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    @Override
+    public void enqueue(@NotNull final Object event) {
+        Check.notNull(event, "event");
+
+        // the pending count is raised before the state is checked, so the worker cannot exit on close while an accepted
+        // event is still being added, and never parks while it is added
+        this.pending.incrementAndGet();
+        if (!this.running) {
+            this.pending.decrementAndGet();
+            throw new IllegalStateException("The dispatcher is closed");
+        }
+        this.lanes[this.lane(event)].add(event);
+
+        if (this.parked) {
+            LockSupport.unpark(this.worker);
+        }
+    }
+
+    @Override
+    public int pending() {
+        return this.pending.get();
+    }
+
+    @Override
+    public void close() {
+        if (!this.running) {
+            return;
+        }
+
+        this.running = false;
+        LockSupport.unpark(this.worker);
+
+        try {
+            this.worker.join();
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private int lane(final Object event) {
+        if (event instanceof LanedEvent lanedEvent) {
+            return Math.max(0, Math.min(lanedEvent.lane(), this.lanes.length - 1));
+        }
+
+        return this.classLanes.get(event.getClass());
+    }
+
+    private void run() {
+        while (this.running || this.pending.get() > 0) {
+            if (this.drainRound() != 0) {
+                continue;
+            }
+
+            // the flag is set before the queues are checked again, so an enqueue either sees it or is seen here
+            this.parked = true;
+            if (this.pending.get() == 0 && this.running) {
+                LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+            }
+            this.parked = false;
+        }
+    }
+
+    private int drainRound() {
+        int dispatched = 0;
+
+        for (int lane = 0; lane < this.lanes.length; lane++) {
+            final Queue<Object> queue = this.lanes[lane];
+
+            for (int i = 0; i < this.weights[lane]; i++) {
+                final Object event = queue.poll();
+
+                if (event == null) {
+                    break;
+                }
+
+                this.pending.decrementAndGet();
+                dispatched++;
+                this.dispatch(event);
+            }
+        }
+
+        return dispatched;
+    }
+
+    private void dispatch(final Object event) {
+        try {
+            this.eventBus.call(event);
+        } catch (final RuntimeException exception) {
+            exception.printStackTrace();
+        }
+    }
+
+    static final class BuilderImpl implements AsyncEventDispatcher.Builder {
+
+        private final EventBus eventBus;
+        private final Map<Class<?>, Integer> typeLanes;
+        private int[] weights = {1};
+        private String threadName = "event-dispatcher";
+
+        BuilderImpl(final EventBus eventBus) {
+            this.eventBus = eventBus;
+            this.typeLanes = new HashMap<>();
+        }
+
+        @Override
+        public AsyncEventDispatcher.@NotNull Builder lanes(final int @NotNull ... weights) {
+            Check.notNull(weights, "weights");
+            Check.argCondition(weights.length == 0, "at least one lane is required");
+            for (final int weight : weights) {
+                Check.argCondition(weight <= 0, "weights must be positive");
+            }
+            this.weights = weights.clone();
+            return this;
+        }
+
+        @Override
+        public AsyncEventDispatcher.@NotNull Builder lane(@NotNull final Class<?> type, final int lane) {
+            Check.notNull(type, "type");
+            Check.argCondition(lane < 0, "lane must not be negative");
+            this.typeLanes.put(type, lane);
+            return this;
+        }
+
+        @Override
+        public AsyncEventDispatcher.@NotNull Builder threadName(@NotNull final String threadName) {
+            Check.notNull(threadName, "threadName");
+            this.threadName = threadName;
+            return this;
+        }
+
+        @Override
+        public @NotNull AsyncEventDispatcher build() {
+            return new AsyncEventDispatcherImpl(this);
+        }
+    }
+}
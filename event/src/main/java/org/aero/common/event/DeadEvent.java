@@ -0,0 +1,30 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents an event which was called on an {@link EventBus} without any listener being registered for its type. A
+ * dead event is only called for the original event, never for another dead event.
+ *
+ * @param event the event which had no listener
+ * @see EventBus#unhandledCount(Class)
+ */
+public record DeadEvent(@NotNull Object event) {
+
+}
@@ -0,0 +1,42 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+/**
+ * Represents an event which is only worth handling until its deadline. The event bus checks the deadline before every
+ * listener and skips the remaining listeners once it has passed.
+ *
+ * @see EventBus#expiredCount()
+ */
+public interface DeadlineEvent {
+
+    /**
+     * Gets the deadline of the event, as a value of {@link System#nanoTime()}.
+     *
+     * @return the deadline in nanoseconds
+     */
+    long deadline();
+
+    /**
+     * Gets if the deadline of the event has passed.
+     *
+     * @return true if the deadline has passed
+     */
+    default boolean isExpired() {
+        return System.nanoTime() - this.deadline() >= 0;
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a scope which buffers events until it is committed. On commit the buffered events are called in one
+ * batch, on rollback they are discarded, so listeners never see events of a unit of work which did not complete.
+ *
+ * <p>A scope belongs to the thread which opened it and must not be used by any other thread. Scopes which are opened
+ * while another scope is open on the same thread are nested: committing a nested scope moves its events into the
+ * innermost enclosing scope which is still open, or calls them if there is none.
+ *
+ * <p>While a scope is open, {@link EventBus#call(Object)} on the same thread buffers the event in the innermost open
+ * scope as well. Other calls, such as sticky, cancellable or collecting calls, are never deferred.
+ *
+ * @see EventBus#deferred()
+ */
+public sealed interface DeferredEventScope extends AutoCloseable permits DeferredEventScopeImpl {
+
+    /**
+     * Buffers an event until this scope is committed.
+     *
+     * @param event the event to buffer
+     */
+    void call(@NotNull Object event);
+
+    /**
+     * Buffers an event until this scope is committed. A later event with an equal key replaces the buffered one at its
+     * position, so only the latest event per key is called.
+     *
+     * @param key   the key to deduplicate the event by
+     * @param event the event to buffer
+     */
+    void call(@NotNull Object key, @NotNull Object event);
+
+    /**
+     * Returns the amount of buffered events.
+     *
+     * @return the amount of buffered events
+     */
+    int size();
+
+    /**
+     * Calls all buffered events in one batch, in the order they were buffered, and closes this scope.
+     */
+    void commit();
+
+    /**
+     * Discards all buffered events and closes this scope.
+     */
+    void rollback();
+
+    /**
+     * Rolls this scope back, unless it was already committed or rolled back.
+     */
+    @Override
+    void close();
+
+}
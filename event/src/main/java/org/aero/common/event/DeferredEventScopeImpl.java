@@ -0,0 +1,160 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.aero.common.core.validate.Check;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+final class DeferredEventScopeImpl implements DeferredEventScope {
+
+    private final EventBusImpl eventBus;
+    private final ThreadLocal<DeferredEventScopeImpl> current;
+    private final DeferredEventScopeImpl parent;
+    private final Thread owner;
+    private final List<Object> events;
+    private Map<Object, Integer> keys;
+    private boolean open = true;
+
+    DeferredEventScopeImpl(final EventBusImpl eventBus, final ThreadLocal<DeferredEventScopeImpl> current) {
+        this.eventBus = eventBus;
+        this.current = current;
+        this.parent = current.get();
+        this.owner = Thread.currentThread();
+        this.events = new ArrayList<>();
+        current.set(this);
+    }
+
+    @Override
+    public void call(@NotNull final Object event) {
+        Check.notNull(event, "event");
+        this.checkAccess();
+        this.events.add(event);
+    }
+
+    @Override
+    public void call(@NotNull final Object key, @NotNull final Object event) {
+        Check.notNull(key, "key");
+        Check.notNull(event, "event");
+        this.checkAccess();
+
+        if (this.keys == null) {
+            this.keys = new HashMap<>();
+        }
+
+        final Integer index = this.keys.putIfAbsent(key, this.events.size());
+
+        if (index == null) {
+            this.events.add(event);
+            return;
+        }
+
+        this.events.set(index, event);
+    }
+
+    @Override
+    public int size() {
+        return this.events.size();
+    }
+
+    @Override
+    public void commit() {
+        this.checkAccess();
+        this.end();
+
+        final DeferredEventScopeImpl enclosing = this.enclosing();
+
+        if (enclosing != null) {
+            enclosing.merge(this);
+            return;
+        }
+
+        this.eventBus.callAll(this.events);
+    }
+
+    @Override
+    public void rollback() {
+        this.checkAccess();
+        this.end();
+    }
+
+    @Override
+    public void close() {
+        if (!this.open) {
+            return;
+        }
+
+        this.rollback();
+    }
+
+    private void merge(final DeferredEventScopeImpl child) {
+        if (child.keys == null) {
+            this.events.addAll(child.events);
+            return;
+        }
+
+        // keyed events of the nested scope replace the keyed events of this scope
+        final Map<Integer, Object> childKeys = new HashMap<>();
+        child.keys.forEach((key, index) -> childKeys.put(index, key));
+
+        for (int i = 0; i < child.events.size(); i++) {
+            final Object key = childKeys.get(i);
+
+            if (key == null) {
+                this.call(child.events.get(i));
+            } else {
+                this.call(key, child.events.get(i));
+            }
+        }
+    }
+
+    private void end() {
+        this.open = false;
+
+        // a scope closed before its nested scopes leaves them current, the innermost open scope stays current
+        if (this.current.get() != this) {
+            return;
+        }
+
+        final DeferredEventScopeImpl enclosing = this.enclosing();
+
+        if (enclosing == null) {
+            this.current.remove();
+        } else {
+            this.current.set(enclosing);
+        }
+    }
+
+    private DeferredEventScopeImpl enclosing() {
+        DeferredEventScopeImpl scope = this.parent;
+
+        while (scope != null && !scope.open) {
+            scope = scope.parent;
+        }
+
+        return scope;
+    }
+
+    private void checkAccess() {
+        Check.stateCondition(!this.open, "The scope is already closed");
+        Check.stateCondition(Thread.currentThread() != this.owner, "The scope belongs to another thread");
+    }
+}
@@ -16,16 +16,26 @@
 
 package org.aero.common.event;
 
+import org.aero.common.core.Shutdownable;
+import org.aero.common.core.builder.IBuilder;
 import org.aero.common.core.validate.Check;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Collector;
 
 /**
  * Represents an event bus.
  */
-public sealed interface EventBus permits EventBusImpl {
+public sealed interface EventBus extends Shutdownable permits EventBusImpl {
 
     /**
      * Creates a new event bus.
@@ -33,13 +43,23 @@ public sealed interface EventBus permits EventBusImpl {
      * @return the created event bus
      */
     static @NotNull EventBus create() {
-        return new EventBusImpl();
+        return EventBus.builder().build();
+    }
+
+    /**
+     * Creates a new {@link Builder} for an event bus.
+     *
+     * @return the created event bus builder
+     */
+    static @NotNull Builder builder() {
+        return new EventBusImpl.BuilderImpl();
     }
 
     /**
      * Registers an {@link EventListener}.
      *
      * @param listener the event listener
+     * @throws IllegalStateException if the event bus is frozen
      */
     void register(@NotNull EventListener<?> listener);
 
@@ -58,9 +78,31 @@ default <T> void register(@NotNull Class<T> type, @NotNull Consumer<T> handler)
     }
 
     /**
-     * Unregisters an {@link EventListener}.
+     * Registers a derivation from one event type to another. Every event of the given type is mapped once and the
+     * derived event is dispatched to the listeners of its own type, instead of every listener repeating the same
+     * extraction. A derived event is only dispatched if a listener handles its class, and a null result is not
+     * dispatched at all. For a final derived type the mapping is skipped while no listener handles it.
+     *
+     * @param type        the event type to derive from
+     * @param derivedType the type of the derived events
+     * @param mapper      the function which derives an event
+     * @param <T>         the event type to derive from
+     * @param <R>         the type of the derived events
+     * @return the registered listener, which can be used to {@link #unregister(EventListener) unregister} the derivation
+     * @throws IllegalStateException if the event bus is frozen
+     */
+    <T, R> @NotNull EventListener<T> derive(
+        @NotNull Class<T> type,
+        @NotNull Class<R> derivedType,
+        @NotNull Function<? super T, ? extends R> mapper
+    );
+
+    /**
+     * Unregisters an {@link EventListener}. The pending events of a batching listener are delivered when it is
+     * unregistered, this applies to {@link #unregisterIf(Predicate)} and {@link #swap(Predicate, Collection)} as well.
      *
      * @param listener the event listener
+     * @throws IllegalStateException if the event bus is frozen
      */
     void unregister(@NotNull EventListener<?> listener);
 
@@ -68,9 +110,52 @@ default <T> void register(@NotNull Class<T> type, @NotNull Consumer<T> handler)
      * Unregisters all {@link EventListener} that passed the condition.
      *
      * @param predicate the event listener
+     * @throws IllegalStateException if the event bus is frozen
      */
     void unregisterIf(@NotNull Predicate<EventListener<?>> predicate);
 
+    /**
+     * Unregisters all {@link EventListener} that passed the condition and registers the given listeners in one step.
+     * The new listeners are resolved aside and published at once, so a concurrent call either sees all of the old
+     * listeners or all of the new ones, never a mix of both. A listener given more than once is registered once, a
+     * registered listener which passes the condition and is given again is registered anew.
+     *
+     * @param remove the condition of the listeners to unregister
+     * @param add    the listeners to register
+     * @throws IllegalStateException if the event bus is frozen
+     */
+    void swap(@NotNull Predicate<EventListener<?>> remove, @NotNull Collection<? extends EventListener<?>> add);
+
+    /**
+     * Freezes the registered listeners for steady-state dispatch. The listeners of all registered event types are
+     * resolved right away into a lookup table which is only read while the event bus is frozen, and every following
+     * registration or unregistration throws an {@link IllegalStateException} until the event bus is
+     * {@link #unfreeze() unfrozen} again.
+     */
+    void freeze();
+
+    /**
+     * Allows listeners to be registered and unregistered again after the event bus was frozen. Every modification
+     * rebuilds the dispatch table, so modifications should be done in bulk before freezing the event bus again.
+     */
+    void unfreeze();
+
+    /**
+     * Checks if the event bus is frozen.
+     *
+     * @return true, if the event bus is frozen, false, if not
+     * @see #freeze()
+     */
+    boolean isFrozen();
+
+    /**
+     * Stops the timer of the event bus and delivers the pending events of all batching listeners. Events which were
+     * {@link #callLater(Object, Duration) scheduled} but not called yet are dropped, and batching listeners only deliver
+     * full batches afterwards.
+     */
+    @Override
+    void shutdown();
+
     /**
      * Checks if the event bus has registered the event listener.
      *
@@ -80,15 +165,152 @@ default <T> void register(@NotNull Class<T> type, @NotNull Consumer<T> handler)
     boolean has(@NotNull EventListener<?> listener);
 
     /**
-     * Calls an event starting from this node.
+     * Calls an event starting from this node. If no listener is registered for the event, the unhandled count of its
+     * class is incremented and, if dead event listeners are registered, a {@link DeadEvent} wrapping it is called. The
+     * remaining listeners of a {@link DeadlineEvent} are skipped once its deadline has passed.
      *
      * @param event the event to call
      */
     void call(@NotNull Object event);
 
+    /**
+     * Calls an event and collects the results of the responders of all listeners that handled it. Event conditions and
+     * propagation is the same as {@link #call(Object)}, listeners are invoked one after another in priority order. Only
+     * results which are instances of the given response type are collected, the responders of other types are still
+     * executed.
+     *
+     * @param event        the event to call
+     * @param responseType the type of the results to collect
+     * @param collector    the collector for the results
+     * @param <R>          the type of the results
+     * @param <A>          the type of the collected result
+     * @return the collected result
+     * @see EventListener.Builder#responder(Class, java.util.function.Function)
+     */
+    default <R, A> A callAndCollect(
+        @NotNull final Object event,
+        @NotNull final Class<R> responseType,
+        @NotNull final Collector<? super R, ?, A> collector
+    ) {
+        return this.callAndCollect(event, responseType, collector, false);
+    }
+
+    /**
+     * Calls an event and collects the results of the responders of all listeners that handled it. In parallel mode the
+     * listeners are invoked concurrently on the common fork join pool and their order is not defined, so they must not
+     * depend on each other. Cancelling the event only skips the listeners which did not start yet. Only results which
+     * are instances of the given response type are collected.
+     *
+     * @param event        the event to call
+     * @param responseType the type of the results to collect
+     * @param collector    the collector for the results
+     * @param parallel     true if the listeners should be invoked in parallel
+     * @param <R>          the type of the results
+     * @param <A>          the type of the collected result
+     * @return the collected result
+     * @see EventListener.Builder#responder(Class, java.util.function.Function)
+     */
+    <R, A> A callAndCollect(
+        @NotNull Object event,
+        @NotNull Class<R> responseType,
+        @NotNull Collector<? super R, ?, A> collector,
+        boolean parallel
+    );
+
+    /**
+     * Calls an event once the given delay has passed, unless the returned handle is cancelled before. The event is
+     * called on the timer thread of the event bus, whose resolution is one millisecond, so listeners of delayed events
+     * should not block.
+     *
+     * @param event the event to call
+     * @param delay the delay after which the event is called
+     * @return the handle of the scheduled event
+     * @throws IllegalStateException if the event bus is shut down
+     */
+    @NotNull ScheduledEvent callLater(@NotNull Object event, @NotNull Duration delay);
+
+    /**
+     * Returns how often an event of the given class was called without any listener being registered for it.
+     *
+     * @param type the class of the event
+     * @return the amount of unhandled calls
+     * @see DeadEvent
+     */
+    long unhandledCount(@NotNull Class<?> type);
+
+    /**
+     * Returns a snapshot of the unhandled call counts of all event classes which were called at least once without any
+     * listener being registered for them.
+     *
+     * @return the unhandled call counts per event class
+     * @see DeadEvent
+     */
+    @NotNull Map<Class<?>, Long> unhandledCounts();
+
+    /**
+     * Returns how many {@link DeadlineEvent}s were dropped because their deadline passed before all listeners handled
+     * them.
+     *
+     * @return the amount of expired events
+     */
+    long expiredCount();
+
+    /**
+     * Returns how many events were dropped by the dedup stage because their id was already seen.
+     *
+     * @return the amount of duplicate events, 0 if dedup is not enabled
+     * @see Builder#dedup(Function, int)
+     */
+    long duplicateCount();
+
+    /**
+     * Returns the share of events with an id which were dropped by the dedup stage.
+     *
+     * @return the duplicate rate between 0 and 1, 0 if dedup is not enabled
+     * @see Builder#dedup(Function, int)
+     */
+    double duplicateRate();
+
+    /**
+     * Calls an event and keeps it as the sticky event of its class. Only the latest sticky event per class is kept, a
+     * listener that is registered later with {@link EventListener.Builder#sticky(boolean)} receives it right away. An
+     * event rejected as a duplicate by {@link Builder#dedup(Function, int)} is neither kept nor called.
+     *
+     * @param event the event to call
+     */
+    void callSticky(@NotNull Object event);
+
+    /**
+     * Returns the latest sticky event of the given class.
+     *
+     * @param type the class of the sticky event
+     * @param <T>  the event type
+     * @return the latest sticky event, or null if there is none
+     */
+    <T> @Nullable T stickyEvent(@NotNull Class<T> type);
+
+    /**
+     * Removes the latest sticky event of the given class.
+     *
+     * @param type the class of the sticky event
+     * @param <T>  the event type
+     * @return the removed sticky event, or null if there was none
+     */
+    <T> @Nullable T removeStickyEvent(@NotNull Class<T> type);
+
+    /**
+     * Opens a scope on the current thread which buffers events until it is committed. Committing calls all buffered
+     * events in one batch, rolling back discards them. While the scope is open, {@link #call(Object)} on the same thread
+     * buffers the event in the scope as well.
+     *
+     * @return the opened scope
+     */
+    @NotNull DeferredEventScope deferred();
+
     /**
      * Execute a cancellable event with a callback to execute if the event is successful. Event conditions and
-     * propagation is the same as {@link #call(Object)}.
+     * propagation is the same as {@link #call(Object)}, but the event is not buffered in an open {@link #deferred()}
+     * scope, since the callback depends on its outcome.
      *
      * @param event    the event to execute
      * @param callback a callback if the event is not cancelled
@@ -102,4 +324,79 @@ default void callCancellable(@NotNull Object event, @NotNull Runnable callback)
         }
         callback.run();
     }
+
+    /**
+     * Execute a cancellable event on the given executor with a callback to execute if the event is successful. The
+     * cancellation is read after all listeners returned, events which are cancelled from other threads should extend
+     * {@link AbstractConcurrentCancellableEvent}.
+     *
+     * @param event    the event to execute
+     * @param executor the executor to execute the event on
+     * @param callback a callback if the event is not cancelled
+     * @return a future completed with true if the callback was executed, false if the event was cancelled
+     */
+    default @NotNull CompletableFuture<Boolean> callCancellableAsync(
+        @NotNull Object event,
+        @NotNull Executor executor,
+        @NotNull Runnable callback
+    ) {
+        Check.notNull(event, "event");
+        Check.notNull(executor, "executor");
+        Check.notNull(callback, "callback");
+        return CompletableFuture.supplyAsync(() -> {
+            this.call(event);
+            if (event instanceof CancellableEvent cancellableEvent && cancellableEvent.isCancelled()) {
+                return false;
+            }
+            callback.run();
+            return true;
+        }, executor);
+    }
+
+    /**
+     * Represents a builder for an event bus.
+     */
+    sealed interface Builder extends IBuilder<EventBus> permits EventBusImpl.BuilderImpl {
+
+        /**
+         * Sets the handler for exceptions thrown by listeners. Every listener is invoked in isolation, an exception
+         * thrown by one listener does not prevent the following listeners from being called. The default handler prints
+         * the stack trace of the exception.
+         *
+         * @param exceptionHandler the exception handler
+         * @return this builder, for chaining
+         */
+        @NotNull Builder exceptionHandler(@NotNull ListenerExceptionHandler exceptionHandler);
+
+        /**
+         * Enables a circuit breaker for every listener. A listener which failed the given amount of times in a row is
+         * not invoked anymore until the cool-down has passed. If it fails again on the first invocation after the
+         * cool-down, the circuit is tripped again right away. The circuit breaker is disabled by default.
+         *
+         * @param failureThreshold the amount of consecutive failures which trip the circuit
+         * @param coolDown         the duration for which a tripped listener is skipped
+         * @return this builder, for chaining
+         */
+        @NotNull Builder circuitBreaker(int failureThreshold, @NotNull Duration coolDown);
+
+        /**
+         * Enables a dedup stage which drops events whose id was already seen before they are dispatched to any
+         * listener. The ids are remembered in a bounded structure which evicts the least recently seen ids first, so an
+         * id is only recognized while it is among roughly the last capacity ids. Events for which the extractor returns
+         * null are always dispatched.
+         *
+         * @param idExtractor the function which extracts the id of an event, or returns null if it has none
+         * @param capacity    the maximum amount of ids to remember
+         * @return this builder, for chaining
+         */
+        @NotNull Builder dedup(@NotNull Function<Object, ?> idExtractor, int capacity);
+
+        /**
+         * Builds the event bus.
+         *
+         * @return the built event bus
+         */
+        @Override
+        @NotNull EventBus build();
+    }
 }
@@ -18,83 +18,732 @@
 
 import org.aero.common.core.validate.Check;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.lang.reflect.Modifier;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.SortedSet;
-import java.util.TreeSet;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.stream.Collector;
 
 @SuppressWarnings({"rawtypes"})
 final class EventBusImpl implements EventBus {
 
-    private final Map<Class, SortedSet<EventListener>> listeners;
+    private static final long TIMER_TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int TIMER_WHEEL_SIZE = 512;
+    // marks a dispatch without a deadline, the deadlines of events are compared by their difference to the current time
+    private static final long NO_DEADLINE = Long.MIN_VALUE;
 
-    EventBusImpl() {
-        this.listeners = new ConcurrentHashMap<>();
+    private final Object lock = new Object();
+    private final Map<Class<?>, Object> stickyEvents;
+    private final Map<Class<?>, LongAdder> unhandledCounts;
+    private final ListenerErrorPolicy errorPolicy;
+    private final LongAdder expiredCount;
+    private final EventDeduplicator deduplicator;
+    private final ThreadLocal<DeferredEventScopeImpl> deferredScope;
+    private volatile ListenerTable listeners = ListenerTable.EMPTY;
+    private volatile TimerWheel timerWheel;
+    private volatile boolean frozen = false;
+    private volatile boolean shutdown = false;
+
+    EventBusImpl(final BuilderImpl builder) {
+        this.errorPolicy = new ListenerErrorPolicy(builder.exceptionHandler, builder.failureThreshold, builder.coolDownNanos);
+        this.stickyEvents = new ConcurrentHashMap<>();
+        this.unhandledCounts = new ConcurrentHashMap<>();
+        this.expiredCount = new LongAdder();
+        this.deduplicator = builder.idExtractor == null ? null : new EventDeduplicator(builder.idExtractor, builder.dedupCapacity);
+        this.deferredScope = new ThreadLocal<>();
     }
 
     @Override
     public void register(@NotNull final EventListener<?> listener) {
         Check.notNull(listener, "listener");
-        final SortedSet<EventListener> typeListeners = this.listeners.computeIfAbsent(
-            listener.eventType(),
-            type -> new TreeSet<>()
-        );
-        typeListeners.add(listener);
+        if (!(listener instanceof EventListenerImpl<?> handler)) {
+            return;
+        }
+
+        final ListenerBinding<?> binding = new ListenerBinding<>(handler);
+
+        synchronized (this.lock) {
+            Check.stateCondition(this.frozen, "The event bus is frozen");
+            final ListenerTable table = this.listeners.with(binding);
+
+            if (table == this.listeners) {
+                return;
+            }
+
+            this.listeners = table;
+        }
+
+        this.bind(binding);
+    }
+
+    @Override
+    public <T, R> @NotNull EventListener<T> derive(
+        @NotNull final Class<T> type,
+        @NotNull final Class<R> derivedType,
+        @NotNull final Function<? super T, ? extends R> mapper
+    ) {
+        Check.notNull(type, "type");
+        Check.notNull(derivedType, "derivedType");
+        Check.notNull(mapper, "mapper");
+        // only a final type is the class of every derived event, otherwise subclasses may have listeners of their own
+        final boolean exactType = Modifier.isFinal(derivedType.getModifiers());
+        final EventListener<T> listener = EventListener.of(type, event -> {
+            // the resolved listeners are cached per table, so this check is a single lookup
+            if (exactType && this.listeners.resolve(derivedType).length == 0) {
+                return;
+            }
+
+            final R derived = mapper.apply(event);
+
+            if (derived == null) {
+                return;
+            }
+
+            final ListenerBinding[] handlers = this.listeners.resolve(derived);
+
+            if (handlers.length != 0) {
+                this.dispatch(derived, handlers);
+            }
+        });
+
+        this.register(listener);
+        return listener;
     }
 
     @Override
     public void unregister(@NotNull final EventListener<?> listener) {
         Check.notNull(listener, "listener");
-        final SortedSet<EventListener> typeListeners = this.listeners.get(listener.eventType());
+        final ListenerTable previous;
+        final ListenerTable current;
 
-        if (typeListeners == null) {
-            return;
+        synchronized (this.lock) {
+            Check.stateCondition(this.frozen, "The event bus is frozen");
+            previous = this.listeners;
+            current = previous.without(handler -> handler == listener);
+            this.listeners = current;
         }
 
-        typeListeners.remove(listener);
+        // events buffered by removed listeners are delivered instead of being dropped with them
+        previous.forEachRemoved(current, EventBusImpl::flushBatch);
     }
 
     @Override
     public void unregisterIf(@NotNull final Predicate<EventListener<?>> predicate) {
         Check.notNull(predicate, "predicate");
-        for (final SortedSet<EventListener> typeListeners : this.listeners.values()) {
-            typeListeners.removeIf(predicate::test);
+        final ListenerTable previous;
+        final ListenerTable current;
+
+        synchronized (this.lock) {
+            Check.stateCondition(this.frozen, "The event bus is frozen");
+            previous = this.listeners;
+            current = previous.without(predicate);
+            this.listeners = current;
         }
+
+        previous.forEachRemoved(current, EventBusImpl::flushBatch);
+    }
+
+    @Override
+    public void swap(@NotNull final Predicate<EventListener<?>> remove, @NotNull final Collection<? extends EventListener<?>> add) {
+        Check.notNull(remove, "remove");
+        Check.notNull(add, "add");
+        final List<ListenerBinding<?>> bindings = new ArrayList<>(add.size());
+        final Set<EventListener<?>> distinct = Collections.newSetFromMap(new IdentityHashMap<>());
+
+        for (final EventListener<?> listener : add) {
+            Check.notNull(listener, "listener");
+            // a listener given more than once is only bound once
+            if (listener instanceof EventListenerImpl<?> handler && distinct.add(handler)) {
+                bindings.add(new ListenerBinding<>(handler));
+            }
+        }
+
+        final List<ListenerBinding<?>> added = new ArrayList<>(bindings.size());
+        final ListenerTable previous;
+        final ListenerTable current;
+
+        synchronized (this.lock) {
+            Check.stateCondition(this.frozen, "The event bus is frozen");
+            for (final ListenerBinding<?> binding : bindings) {
+                // a registered listener which is removed by this swap is registered again
+                if (!this.listeners.contains(binding.listener()) || remove.test(binding.listener())) {
+                    added.add(binding);
+                }
+            }
+
+            // resolve the registered event types before publishing, so the first calls do not merge them
+            previous = this.listeners;
+            current = previous.swap(remove, added).prepared();
+            this.listeners = current;
+        }
+
+        previous.forEachRemoved(current, EventBusImpl::flushBatch);
+        for (final ListenerBinding<?> binding : added) {
+            this.bind(binding);
+        }
+    }
+
+    @Override
+    public void freeze() {
+        synchronized (this.lock) {
+            this.listeners = this.listeners.prepared();
+            this.frozen = true;
+        }
+    }
+
+    @Override
+    public void unfreeze() {
+        synchronized (this.lock) {
+            this.frozen = false;
+        }
+    }
+
+    @Override
+    public boolean isFrozen() {
+        return this.frozen;
+    }
+
+    @Override
+    public void shutdown() {
+        final TimerWheel timerWheel;
+
+        synchronized (this.lock) {
+            this.shutdown = true;
+            timerWheel = this.timerWheel;
+            this.timerWheel = null;
+        }
+
+        if (timerWheel != null) {
+            timerWheel.stop();
+        }
+
+        this.listeners.forEach(EventBusImpl::flushBatch);
     }
 
     @Override
     public boolean has(@NotNull final EventListener<?> listener) {
         Check.notNull(listener, "listener");
-        final SortedSet<EventListener> typeListeners = this.listeners.get(listener.eventType());
-
-        if (typeListeners == null) {
+        if (!(listener instanceof EventListenerImpl<?> handler)) {
             return false;
         }
 
-        return typeListeners.contains(listener);
+        return this.listeners.contains(handler);
     }
 
-    @SuppressWarnings("unchecked")
     @Override
     public void call(@NotNull final Object event) {
         Check.notNull(event, "event");
+        final DeferredEventScopeImpl scope = this.deferredScope.get();
+        if (scope != null) {
+            scope.call(event);
+            return;
+        }
+        if (this.isDuplicate(event)) {
+            return;
+        }
+
+        this.call(event, this.listeners.resolve(event));
+    }
+
+    @Override
+    public void callCancellable(@NotNull final Object event, @NotNull final Runnable callback) {
+        Check.notNull(event, "event");
+        Check.notNull(callback, "callback");
+        // the callback depends on the outcome, so the event is dispatched right away even if a deferred scope is open
+        if (!this.isDuplicate(event)) {
+            this.call(event, this.listeners.resolve(event));
+        }
+        if (event instanceof CancellableEvent cancellableEvent && cancellableEvent.isCancelled()) {
+            return;
+        }
+        callback.run();
+    }
+
+    @Override
+    public <R, A> A callAndCollect(
+        @NotNull final Object event,
+        @NotNull final Class<R> responseType,
+        @NotNull final Collector<? super R, ?, A> collector,
+        final boolean parallel
+    ) {
+        Check.notNull(event, "event");
+        Check.notNull(responseType, "responseType");
+        Check.notNull(collector, "collector");
+        if (this.isDuplicate(event)) {
+            return this.collect(event, ListenerTable.NO_LISTENERS, responseType, collector);
+        }
+
+        final ListenerBinding[] handlers = this.listeners.resolve(event);
+
+        if (handlers.length == 0) {
+            this.call(event, handlers);
+            return this.collect(event, handlers, responseType, collector);
+        }
+
+        if (!EventDispatch.enabled()) {
+            return this.traceResponses(event, handlers, responseType, collector, parallel);
+        }
+
+        final EventDispatch recording = new EventDispatch();
+        recording.begin();
+
+        try {
+            return this.traceResponses(event, handlers, responseType, collector, parallel);
+        } finally {
+            recording.end();
+            recording.commit(event, handlers.length);
+        }
+    }
+
+    @Override
+    public @NotNull ScheduledEvent callLater(@NotNull final Object event, @NotNull final Duration delay) {
+        Check.notNull(event, "event");
+        Check.notNull(delay, "delay");
+        Check.argCondition(delay.isNegative(), "delay must not be negative");
+        final TimerWheel timerWheel = this.timerWheel();
+
+        Check.stateCondition(timerWheel == null, "The event bus is shut down");
+        return new ScheduledEventImpl(event, timerWheel.schedule(() -> this.call(event), delay.toNanos()));
+    }
+
+    @Override
+    public long unhandledCount(@NotNull final Class<?> type) {
+        Check.notNull(type, "type");
+        final LongAdder counter = this.unhandledCounts.get(type);
+
+        if (counter == null) {
+            return 0;
+        }
+
+        return counter.sum();
+    }
+
+    @Override
+    public @NotNull Map<Class<?>, Long> unhandledCounts() {
+        final Map<Class<?>, Long> counts = new HashMap<>();
+
+        for (final Map.Entry<Class<?>, LongAdder> entry : this.unhandledCounts.entrySet()) {
+            counts.put(entry.getKey(), entry.getValue().sum());
+        }
+
+        return counts;
+    }
+
+    @Override
+    public long expiredCount() {
+        return this.expiredCount.sum();
+    }
+
+    @Override
+    public long duplicateCount() {
+        return this.deduplicator == null ? 0 : this.deduplicator.duplicateCount();
+    }
+
+    @Override
+    public double duplicateRate() {
+        return this.deduplicator == null ? 0 : this.deduplicator.duplicateRate();
+    }
+
+    @Override
+    public void callSticky(@NotNull final Object event) {
+        Check.notNull(event, "event");
+        // a duplicate neither replaces the sticky event nor is it dispatched
+        if (this.isDuplicate(event)) {
+            return;
+        }
+
+        this.stickyEvents.put(event.getClass(), event);
+        this.call(event, this.listeners.resolve(event));
+    }
+
+    @Override
+    public <T> @Nullable T stickyEvent(@NotNull final Class<T> type) {
+        Check.notNull(type, "type");
+        return type.cast(this.stickyEvents.get(type));
+    }
+
+    @Override
+    public <T> @Nullable T removeStickyEvent(@NotNull final Class<T> type) {
+        Check.notNull(type, "type");
+        return type.cast(this.stickyEvents.remove(type));
+    }
+
+    @Override
+    public @NotNull DeferredEventScope deferred() {
+        return new DeferredEventScopeImpl(this, this.deferredScope);
+    }
+
+    /**
+     * Calls all events in one batch. The listeners are resolved from a single snapshot, consecutive events of the same
+     * class share the resolved listeners.
+     *
+     * @param events the events to call
+     */
+    void callAll(@NotNull final List<Object> events) {
+        final ListenerTable table = this.listeners;
+        Class<?> type = null;
+        ListenerBinding[] handlers = ListenerTable.NO_LISTENERS;
+
+        for (final Object event : events) {
+            if (this.isDuplicate(event)) {
+                continue;
+            }
+
+            if (event instanceof GenericEvent) {
+                this.call(event, table.resolve(event));
+                continue;
+            }
+
+            if (event.getClass() != type) {
+                type = event.getClass();
+                handlers = table.resolve(type);
+            }
+
+            this.call(event, handlers);
+        }
+    }
+
+    private boolean isDuplicate(final Object event) {
+        return this.deduplicator != null && this.deduplicator.isDuplicate(event);
+    }
+
+    private <R, A> A traceResponses(
+        final Object event,
+        final ListenerBinding[] handlers,
+        final Class<R> responseType,
+        final Collector<? super R, ?, A> collector,
+        final boolean parallel
+    ) {
+        if (!EventTracer.ENABLED) {
+            return this.respondAll(event, handlers, responseType, collector, parallel);
+        }
+
+        final long start = System.nanoTime();
+        final long parentId = EventTracer.RECORDER.open();
+
+        try {
+            return this.respondAll(event, handlers, responseType, collector, parallel);
+        } finally {
+            EventTracer.RECORDER.close(parentId, event.getClass(), start);
+        }
+    }
+
+    private <R, A> A respondAll(
+        final Object event,
+        final ListenerBinding[] handlers,
+        final Class<R> responseType,
+        final Collector<? super R, ?, A> collector,
+        final boolean parallel
+    ) {
+        if (parallel) {
+            // responses of other types are skipped, a null response is never an instance
+            final A result = Arrays.stream(handlers)
+                .parallel()
+                .filter(handler -> handler.executor() == null)
+                .map(handler -> this.errorPolicy.respond(handler, event))
+                .filter(responseType::isInstance)
+                .map(responseType::cast)
+                .collect(collector);
+
+            this.handOverAll(event, handlers);
+            return result;
+        }
+
+        return this.collect(event, handlers, responseType, collector);
+    }
+
+    private <R, C, A> A collect(
+        final Object event,
+        final ListenerBinding[] handlers,
+        final Class<R> responseType,
+        final Collector<? super R, C, A> collector
+    ) {
+        final C container = collector.supplier().get();
+        int index = 0;
+
+        while (index < handlers.length) {
+            final ListenerBinding handler = handlers[index];
 
-        for (final Map.Entry<Class, SortedSet<EventListener>> entry : this.listeners.entrySet()) {
-            if (!entry.getKey().isAssignableFrom(event.getClass())) {
+            if (handler.executor() != null) {
+                index = this.handOver(handlers, index, event, NO_DEADLINE);
                 continue;
             }
 
-            final SortedSet<EventListener> typeListeners = entry.getValue();
+            final Object result = this.errorPolicy.respond(handler, event);
+
+            if (responseType.isInstance(result)) {
+                collector.accumulator().accept(container, responseType.cast(result));
+            }
+            index++;
+        }
+
+        return collector.finisher().apply(container);
+    }
+
+    private void call(final Object event, final ListenerBinding[] handlers) {
+        if (handlers.length != 0) {
+            this.dispatch(event, handlers);
+            return;
+        }
+
+        if (event instanceof DeadEvent) {
+            return;
+        }
+
+        final Class<?> type = event.getClass();
+        LongAdder counter = this.unhandledCounts.get(type);
+
+        if (counter == null) {
+            counter = this.unhandledCounts.computeIfAbsent(type, key -> new LongAdder());
+        }
+
+        counter.increment();
+        final ListenerBinding[] deadHandlers = this.listeners.resolve(DeadEvent.class);
+
+        if (deadHandlers.length != 0) {
+            this.dispatch(new DeadEvent(event), deadHandlers);
+        }
+    }
+
+    private void dispatch(final Object event, final ListenerBinding[] handlers) {
+        if (!EventDispatch.enabled()) {
+            this.traceDelivery(event, handlers);
+            return;
+        }
+
+        final EventDispatch recording = new EventDispatch();
+        recording.begin();
+
+        try {
+            this.traceDelivery(event, handlers);
+        } finally {
+            recording.end();
+            recording.commit(event, handlers.length);
+        }
+    }
+
+    private void traceDelivery(final Object event, final ListenerBinding[] handlers) {
+        if (!EventTracer.ENABLED) {
+            this.deliver(event, handlers);
+            return;
+        }
+
+        final long start = System.nanoTime();
+        final long parentId = EventTracer.RECORDER.open();
+
+        try {
+            this.deliver(event, handlers);
+        } finally {
+            EventTracer.RECORDER.close(parentId, event.getClass(), start);
+        }
+    }
+
+    private void deliver(final Object event, final ListenerBinding[] handlers) {
+        final long deadline = event instanceof DeadlineEvent deadlineEvent ? deadlineEvent.deadline() : NO_DEADLINE;
+        int index = 0;
+
+        while (index < handlers.length) {
+            if (deadline != NO_DEADLINE && System.nanoTime() - deadline >= 0) {
+                this.expiredCount.increment();
+                return;
+            }
+
+            final ListenerBinding handler = handlers[index];
+
+            if (handler.executor() != null) {
+                index = this.handOver(handlers, index, event, deadline);
+                continue;
+            }
+
+            this.errorPolicy.invoke(handler, event);
+            index++;
+        }
+    }
+
+    // the consecutive listeners sharing an executor are handed over as one task at their position in the priority order,
+    // the cancellation is checked at this position, so later listeners cancelling the event do not skip the task
+    private int handOver(final ListenerBinding[] handlers, final int start, final Object event, final long deadline) {
+        final Executor executor = handlers[start].executor();
+        int end = start + 1;
+
+        while (end < handlers.length && handlers[end].executor() == executor) {
+            end++;
+        }
 
-            for (final EventListener listener : typeListeners) {
-                if (!(listener instanceof EventListenerImpl handler)) {
-                    continue;
+        if (event instanceof CancellableEvent cancellableEvent && cancellableEvent.isCancelled()) {
+            return end;
+        }
+
+        final ListenerBinding[] task = Arrays.copyOfRange(handlers, start, end);
+        final long spanId = EventTracer.currentSpanId();
+
+        try {
+            executor.execute(() -> {
+                if (EventTracer.ENABLED) {
+                    EventTracer.RECORDER.resume(spanId, () -> this.invokeAll(task, event, deadline));
+                    return;
                 }
 
-                handler.handle(event);
+                this.invokeAll(task, event, deadline);
+            });
+        } catch (final RejectedExecutionException exception) {
+            for (final ListenerBinding handler : task) {
+                this.errorPolicy.rejected(handler, event, exception);
+            }
+        }
+
+        return end;
+    }
+
+    private void invokeAll(final ListenerBinding[] handlers, final Object event, final long deadline) {
+        for (final ListenerBinding handler : handlers) {
+            if (deadline != NO_DEADLINE && System.nanoTime() - deadline >= 0) {
+                this.expiredCount.increment();
+                return;
+            }
+
+            this.errorPolicy.invokeHandedOver(handler, event);
+        }
+    }
+
+    private void handOverAll(final Object event, final ListenerBinding[] handlers) {
+        int index = 0;
+
+        while (index < handlers.length) {
+            index = handlers[index].executor() == null ? index + 1 : this.handOver(handlers, index, event, NO_DEADLINE);
+        }
+    }
+
+    private void bind(final ListenerBinding<?> binding) {
+        if (binding.batch() != null) {
+            this.attachBatch(binding);
+        }
+
+        if (binding.sticky()) {
+            this.replaySticky(binding);
+        }
+    }
+
+    private static void flushBatch(final ListenerBinding<?> binding) {
+        final ListenerBatch<?> batch = binding.batch();
+
+        if (batch != null) {
+            batch.flush();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void attachBatch(final ListenerBinding binding) {
+        final TimerWheel timerWheel = this.timerWheel();
+
+        // a bus that was shut down only delivers full batches
+        if (timerWheel == null) {
+            return;
+        }
+
+        final ListenerExceptionHandler exceptionHandler = this.errorPolicy.exceptionHandler();
+        binding.batch().attach(
+            timerWheel,
+            (batch, exception) -> exceptionHandler.handle(binding.listener(), batch, (Exception) exception)
+        );
+    }
+
+    private @Nullable TimerWheel timerWheel() {
+        final TimerWheel timerWheel = this.timerWheel;
+
+        if (timerWheel != null) {
+            return timerWheel;
+        }
+
+        synchronized (this.lock) {
+            if (this.shutdown) {
+                return null;
             }
+
+            if (this.timerWheel == null) {
+                this.timerWheel = new TimerWheel("event-timer", TIMER_TICK_NANOS, TIMER_WHEEL_SIZE);
+            }
+
+            return this.timerWheel;
+        }
+    }
+
+    private void replaySticky(final ListenerBinding handler) {
+        for (final Object event : this.stickyEvents.values()) {
+            if (!handler.eventType().isInstance(event)) {
+                continue;
+            }
+
+            if (event instanceof GenericEvent genericEvent && !ListenerTable.matches(handler.genericType(), genericEvent.genericType())) {
+                continue;
+            }
+
+            if (handler.executor() != null) {
+                this.handOver(new ListenerBinding[]{handler}, 0, event, NO_DEADLINE);
+                continue;
+            }
+
+            this.errorPolicy.invoke(handler, event);
+        }
+    }
+
+    static final class BuilderImpl implements EventBus.Builder {
+
+        private ListenerExceptionHandler exceptionHandler = ListenerExceptionHandler.PRINTING;
+        private int failureThreshold;
+        private long coolDownNanos;
+        private Function<Object, ?> idExtractor;
+        private int dedupCapacity;
+
+        BuilderImpl() {
+
+        }
+
+        @Override
+        public EventBus.@NotNull Builder exceptionHandler(@NotNull final ListenerExceptionHandler exceptionHandler) {
+            Check.notNull(exceptionHandler, "exceptionHandler");
+            this.exceptionHandler = exceptionHandler;
+            return this;
+        }
+
+        @Override
+        public EventBus.@NotNull Builder circuitBreaker(final int failureThreshold, @NotNull final Duration coolDown) {
+            Check.notNull(coolDown, "coolDown");
+            Check.argCondition(failureThreshold <= 0, "failureThreshold must be positive");
+            Check.argCondition(coolDown.isNegative(), "coolDown must not be negative");
+            this.failureThreshold = failureThreshold;
+            this.coolDownNanos = coolDown.toNanos();
+            return this;
+        }
+
+        @Override
+        public EventBus.@NotNull Builder dedup(@NotNull final Function<Object, ?> idExtractor, final int capacity) {
+            Check.notNull(idExtractor, "idExtractor");
+            Check.argCondition(capacity <= 0, "capacity must be positive");
+            this.idExtractor = idExtractor;
+            this.dedupCapacity = capacity;
+            return this;
+        }
+
+        @Override
+        public @NotNull EventBus build() {
+            return new EventBusImpl(this);
         }
     }
 }
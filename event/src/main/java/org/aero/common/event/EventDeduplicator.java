@@ -0,0 +1,119 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * Represents the dedup stage of an event bus. The ids of seen events are remembered in a fixed number of segments, each
+ * an access ordered map with its own share of the capacity, so the eviction is an approximate LRU across all ids.
+ */
+final class EventDeduplicator {
+
+    private static final int MAX_SEGMENTS = 16;
+
+    private final Function<Object, ?> idExtractor;
+    private final Segment[] segments;
+    private final int mask;
+    private final LongAdder checkedCount;
+    private final LongAdder duplicateCount;
+
+    EventDeduplicator(@NotNull final Function<Object, ?> idExtractor, final int capacity) {
+        int segmentCount = 1;
+
+        while (segmentCount < MAX_SEGMENTS && segmentCount * 2 <= capacity) {
+            segmentCount *= 2;
+        }
+
+        this.idExtractor = idExtractor;
+        this.segments = new Segment[segmentCount];
+        this.mask = segmentCount - 1;
+        this.checkedCount = new LongAdder();
+        this.duplicateCount = new LongAdder();
+
+        for (int i = 0; i < segmentCount; i++) {
+            this.segments[i] = new Segment(capacity / segmentCount + (i < capacity % segmentCount ? 1 : 0));
+        }
+    }
+
+    /**
+     * Remembers the id of the given event.
+     *
+     * @param event the event to check
+     * @return true if the id was already seen, false if it is new or the event has no id
+     */
+    boolean isDuplicate(@NotNull final Object event) {
+        final Object id = this.idExtractor.apply(event);
+
+        if (id == null) {
+            return false;
+        }
+
+        final int hash = id.hashCode();
+        final Segment segment = this.segments[(hash ^ (hash >>> 16)) & this.mask];
+        final boolean duplicate = !segment.add(id);
+
+        this.checkedCount.increment();
+
+        if (duplicate) {
+            this.duplicateCount.increment();
+        }
+
+        return duplicate;
+    }
+
+    long duplicateCount() {
+        return this.duplicateCount.sum();
+    }
+
+    double duplicateRate() {
+        final long checked = this.checkedCount.sum();
+        return checked == 0 ? 0 : (double) this.duplicateCount.sum() / checked;
+    }
+
+    private static final class Segment {
+
+        private final Map<Object, Boolean> ids;
+        private final int capacity;
+
+        Segment(final int capacity) {
+            this.ids = new LinkedHashMap<>(16, 0.75F, true);
+            this.capacity = capacity;
+        }
+
+        synchronized boolean add(final Object id) {
+            // a known id is moved to the end of the access order
+            if (this.ids.putIfAbsent(id, Boolean.TRUE) != null) {
+                return false;
+            }
+
+            if (this.ids.size() > this.capacity) {
+                final Iterator<Object> eldest = this.ids.keySet().iterator();
+                eldest.next();
+                eldest.remove();
+            }
+
+            return true;
+        }
+    }
+}
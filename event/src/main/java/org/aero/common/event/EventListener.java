@@ -20,7 +20,11 @@
 import org.aero.common.core.validate.Check;
 import org.jetbrains.annotations.NotNull;
 
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executor;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 /**
@@ -43,6 +47,21 @@
         return new EventListenerImpl.BuilderImpl<>(type);
     }
 
+    /**
+     * Created a new {@link Builder} for an event listener which only handles the {@link GenericEvent}s whose type
+     * arguments match the ones of the given token. Events of the raw class which are not generic events are handled
+     * as well.
+     *
+     * @param type the full generic type of event the event listener is listening to
+     * @param <T>  the event type being handled
+     * @return the created event listener builder
+     */
+    @SuppressWarnings("unchecked")
+    static <T> @NotNull Builder<T> builder(@NotNull TypeToken<T> type) {
+        Check.notNull(type, "type");
+        return new EventListenerImpl.BuilderImpl<>((Class<T>) type.rawType(), type.type());
+    }
+
     /**
      * Create an event listener without any special options. The given listener will be executed if the event passes all
      * parent filtering.
@@ -105,5 +124,77 @@
          */
         @NotNull Builder<T> handler(@NotNull Consumer<T> handler);
 
+        /**
+         * Makes this listener deliver the events which passed all conditions in batches instead of one by one. A batch
+         * is delivered once it reached the maximum size, on the thread that called the last event, or once the maximum
+         * delay after its first event has passed, on the timer thread of the event bus. The remaining events are
+         * delivered when the event bus is shut down. The batch handler replaces the {@link #handler(Consumer)}. Every
+         * registration of the listener on an event bus buffers its events separately.
+         *
+         * @param maxSize  the maximum amount of events per batch
+         * @param maxDelay the maximum delay between the first event of a batch and its delivery
+         * @param handler  the handler that gets executed for every batch
+         * @return this builder, for chaining
+         */
+        @NotNull Builder<T> batch(int maxSize, @NotNull Duration maxDelay, @NotNull Consumer<List<T>> handler);
+
+        /**
+         * Sets the responder for this event listener, which contributes a result to
+         * {@link EventBus#callAndCollect(Object, Class, java.util.stream.Collector)}. It is executed after the handler if
+         * the listener passes all conditions, a null result is not collected. The result is only collected by calls
+         * requesting a supertype of the response type. A plain {@link EventBus#call(Object)} does not execute the
+         * responder.
+         *
+         * @param responseType the type of the results of the responder
+         * @param responder    the responder that gets executed
+         * @param <R>          the type of the results
+         * @return this builder, for chaining
+         */
+        <R> @NotNull Builder<T> responder(@NotNull Class<R> responseType, @NotNull Function<T, ? extends R> responder);
+
+        /**
+         * Sets whether this listener receives the latest sticky events of its type when it gets registered. The default
+         * is false.
+         *
+         * @param sticky true if sticky events should be replayed on registration
+         * @return this builder, for chaining
+         * @see EventBus#callSticky(Object)
+         */
+        @NotNull Builder<T> sticky(boolean sticky);
+
+        /**
+         * Makes this listener handle only a random fraction of the events. The sample is drawn before the cancellation
+         * and the conditions are checked, so the cost of this listener stays proportional to the rate. The default is 1,
+         * which handles every event.
+         *
+         * @param rate the fraction of events to handle, greater than 0 and at most 1
+         * @return this builder, for chaining
+         */
+        @NotNull Builder<T> sample(double rate);
+
+        /**
+         * Makes this listener handle only every n-th event. The events are counted per thread and per event bus the
+         * listener is registered on, before the cancellation and the conditions are checked, so with several dispatching
+         * threads every thread handles every n-th of its own events. The default is 1, which handles every event.
+         *
+         * @param n the distance between two handled events
+         * @return this builder, for chaining
+         */
+        @NotNull Builder<T> everyNth(int n);
+
+        /**
+         * Sets the executor this listener is executed on, for example a single threaded loop which owns the state the
+         * listener touches. The listener is handed over at its position in the priority order, consecutive listeners
+         * sharing an executor are handed over as a single task. It is skipped if the event was cancelled by a listener
+         * before its position, but it runs concurrently with the listeners after it, so cancelling the event from it
+         * does not affect them. A rejected hand-over is reported to the exception handler of the event bus as a
+         * {@link java.util.concurrent.RejectedExecutionException}. Listeners executed on an executor do not
+         * contribute to {@link EventBus#callAndCollect(Object, Class, java.util.stream.Collector)}.
+         *
+         * @param executor the executor to execute this listener on
+         * @return this builder, for chaining
+         */
+        @NotNull Builder<T> executor(@NotNull Executor executor);
+
     }
 }
@@ -18,26 +18,57 @@
 
 import org.aero.common.core.validate.Check;
 import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
 
+import java.lang.reflect.Type;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
 
 final class EventListenerImpl<T> implements EventListener<T> {
 
     static int DEFAULT_PRIORITY = 0;
 
+    private static final AtomicLong SEQUENCE = new AtomicLong();
+
     private final Class<T> type;
+    private final Type genericType;
     private final List<Predicate<T>> conditions;
     private final int priority;
     private final Consumer<T> handler;
+    private final Class<?> responseType;
+    private final Function<T, ?> responder;
+    private final int batchSize;
+    private final long batchDelayNanos;
+    private final Consumer<List<T>> batchHandler;
+    private final Executor executor;
+    private final boolean sticky;
+    private final double sampleRate;
+    private final int nth;
+    private final long sequence;
 
     EventListenerImpl(final BuilderImpl<T> builder) {
         this.type = builder.type;
+        this.genericType = builder.genericType;
         this.conditions = new ArrayList<>(builder.conditions);
         this.priority = builder.priority;
         this.handler = builder.handler;
+        this.responseType = builder.responseType;
+        this.responder = builder.responder;
+        this.batchSize = builder.batchSize;
+        this.batchDelayNanos = builder.batchDelayNanos;
+        this.batchHandler = builder.batchHandler;
+        this.executor = builder.executor;
+        this.sticky = builder.sticky;
+        this.sampleRate = builder.sampleRate;
+        this.nth = builder.nth;
+        this.sequence = SEQUENCE.getAndIncrement();
     }
 
     @Override
@@ -50,39 +81,156 @@ public int priority() {
         return this.priority;
     }
 
-    void handle(@NotNull final T event) {
-        if (event instanceof CancellableEvent cancellableEvent && cancellableEvent.isCancelled()) {
+    boolean sticky() {
+        return this.sticky;
+    }
+
+    @Nullable Executor executor() {
+        return this.executor;
+    }
+
+    @Nullable Type genericType() {
+        return this.genericType;
+    }
+
+    // every registration gets its own buffer, so the events of different event buses never share a batch
+    @Nullable ListenerBatch<T> newBatch() {
+        return this.batchHandler == null ? null : new ListenerBatch<>(this.batchSize, this.batchDelayNanos, this.batchHandler);
+    }
+
+    // every registration counts its own events, so the events of other event buses do not advance the counter
+    @Nullable ThreadLocal<int[]> newNthCounter() {
+        return this.nth > 1 ? ThreadLocal.withInitial(() -> new int[1]) : null;
+    }
+
+    void handle(@NotNull final T event, @NotNull final ListenerBinding<T> binding, final boolean checkCancelled) {
+        if (!this.accepts(event, binding, checkCancelled)) {
             return;
         }
 
+        if (!ListenerInvocation.enabled()) {
+            this.deliver(event, binding.batch());
+            return;
+        }
+
+        final ListenerInvocation invocation = new ListenerInvocation();
+        invocation.begin();
+
+        try {
+            this.deliver(event, binding.batch());
+        } finally {
+            invocation.end();
+            invocation.commit(event, this.priority);
+        }
+    }
+
+    @Nullable Object respond(@NotNull final T event, @NotNull final ListenerBinding<T> binding) {
+        if (!this.accepts(event, binding, true)) {
+            return null;
+        }
+
+        if (!ListenerInvocation.enabled()) {
+            return this.deliverAndRespond(event);
+        }
+
+        final ListenerInvocation invocation = new ListenerInvocation();
+        invocation.begin();
+
+        try {
+            return this.deliverAndRespond(event);
+        } finally {
+            invocation.end();
+            invocation.commit(event, this.priority);
+        }
+    }
+
+    private void deliver(final T event, final ListenerBatch<T> batch) {
+        if (batch != null) {
+            batch.add(event);
+        } else if (this.handler != null) {
+            this.handler.accept(event);
+        }
+    }
+
+    private Object deliverAndRespond(final T event) {
+        if (this.handler != null) {
+            this.handler.accept(event);
+        }
+
+        // the response type is checked here, so an unchecked responder fails as a listener instead of the collector
+        return this.responder == null ? null : this.responseType.cast(this.responder.apply(event));
+    }
+
+    private boolean accepts(final T event, final ListenerBinding<T> binding, final boolean checkCancelled) {
+        if (!this.sampled(binding.nthCounter())) {
+            return false;
+        }
+
+        if (checkCancelled && event instanceof CancellableEvent cancellableEvent && cancellableEvent.isCancelled()) {
+            return false;
+        }
+
         if (!this.conditions.isEmpty()) {
             for (var condition : this.conditions) {
                 if (!condition.test(event)) {
-                    return;
+                    return false;
                 }
             }
         }
 
-        if (this.handler == null) {
-            return;
+        return true;
+    }
+
+    private boolean sampled(final ThreadLocal<int[]> nthCounter) {
+        if (nthCounter != null) {
+            final int[] counter = nthCounter.get();
+
+            if (++counter[0] < this.nth) {
+                return false;
+            }
+
+            counter[0] = 0;
         }
-        this.handler.accept(event);
+
+        return this.sampleRate >= 1 || ThreadLocalRandom.current().nextDouble() < this.sampleRate;
     }
 
     @Override
     public int compareTo(@NotNull final EventListener<T> other) {
-        return Integer.compare(this.priority, other.priority());
+        final int result = Integer.compare(this.priority, other.priority());
+
+        if (result != 0 || !(other instanceof EventListenerImpl<T> otherImpl)) {
+            return result;
+        }
+
+        // listeners with the same priority are ordered by their creation
+        return Long.compare(this.sequence, otherImpl.sequence);
     }
 
     static final class BuilderImpl<T> implements EventListener.Builder<T> {
 
         private final Class<T> type;
+        private final Type genericType;
         private final List<Predicate<T>> conditions;
         private int priority = EventListenerImpl.DEFAULT_PRIORITY;
         private Consumer<T> handler;
+        private Class<?> responseType;
+        private Function<T, ?> responder;
+        private int batchSize;
+        private long batchDelayNanos;
+        private Consumer<List<T>> batchHandler;
+        private Executor executor;
+        private boolean sticky;
+        private double sampleRate = 1;
+        private int nth = 1;
 
         BuilderImpl(@NotNull final Class<T> type) {
+            this(type, null);
+        }
+
+        BuilderImpl(@NotNull final Class<T> type, @Nullable final Type genericType) {
             this.type = type;
+            this.genericType = genericType;
             this.conditions = new ArrayList<>();
         }
 
@@ -106,6 +254,62 @@ public int compareTo(@NotNull final EventListener<T> other) {
             return this;
         }
 
+        @Override
+        public <R> EventListener.@NotNull Builder<T> responder(
+            @NotNull final Class<R> responseType,
+            @NotNull final Function<T, ? extends R> responder
+        ) {
+            Check.notNull(responseType, "responseType");
+            Check.notNull(responder, "responder");
+            Check.argCondition(responseType.isPrimitive(), "responseType must not be primitive");
+            this.responseType = responseType;
+            this.responder = responder;
+            return this;
+        }
+
+        @Override
+        public EventListener.@NotNull Builder<T> batch(
+            final int maxSize,
+            @NotNull final Duration maxDelay,
+            @NotNull final Consumer<List<T>> handler
+        ) {
+            Check.notNull(maxDelay, "maxDelay");
+            Check.notNull(handler, "handler");
+            Check.argCondition(maxSize <= 0, "maxSize must be positive");
+            Check.argCondition(maxDelay.isNegative() || maxDelay.isZero(), "maxDelay must be positive");
+            this.batchSize = maxSize;
+            this.batchDelayNanos = maxDelay.toNanos();
+            this.batchHandler = handler;
+            return this;
+        }
+
+        @Override
+        public @NotNull Builder<T> sticky(final boolean sticky) {
+            this.sticky = sticky;
+            return this;
+        }
+
+        @Override
+        public @NotNull Builder<T> sample(final double rate) {
+            Check.argCondition(!(rate > 0 && rate <= 1), "rate must be in (0, 1]");
+            this.sampleRate = rate;
+            return this;
+        }
+
+        @Override
+        public @NotNull Builder<T> everyNth(final int n) {
+            Check.argCondition(n <= 0, "n must be positive");
+            this.nth = n;
+            return this;
+        }
+
+        @Override
+        public @NotNull Builder<T> executor(@NotNull final Executor executor) {
+            Check.notNull(executor, "executor");
+            this.executor = executor;
+            return this;
+        }
+
         @Override
         public EventListener<T> build() {
             return new EventListenerImpl<>(this);
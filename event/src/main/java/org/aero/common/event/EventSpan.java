@@ -0,0 +1,41 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a recorded dispatch of an event.
+ *
+ * @param id            the id of this span, unique per process
+ * @param parentId      the id of the span which was active on the calling thread, or 0 if there was none
+ * @param eventType     the class of the dispatched event
+ * @param startNanos    the {@link System#nanoTime()} at the start of the dispatch
+ * @param durationNanos the duration of the dispatch in nanoseconds
+ * @param threadName    the name of the thread which dispatched the event
+ * @see EventTracer
+ */
+public record EventSpan(
+    long id,
+    long parentId,
+    @NotNull Class<?> eventType,
+    long startNanos,
+    long durationNanos,
+    @NotNull String threadName
+) {
+
+}
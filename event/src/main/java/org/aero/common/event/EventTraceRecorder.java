@@ -0,0 +1,109 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Represents the recorder behind {@link EventTracer}. The span of the running dispatch is kept per thread, finished
+ * spans are written into a ring buffer which overwrites the oldest spans once it is full.
+ */
+final class EventTraceRecorder {
+
+    private final AtomicLong ids;
+    private final AtomicLong writes;
+    private final AtomicReferenceArray<EventSpan> spans;
+    private final int mask;
+    private final ThreadLocal<long[]> current;
+
+    EventTraceRecorder(final int capacity) {
+        final int size = Integer.highestOneBit(Math.max(capacity, 2) - 1) << 1;
+
+        this.ids = new AtomicLong();
+        this.writes = new AtomicLong();
+        this.spans = new AtomicReferenceArray<>(size);
+        this.mask = size - 1;
+        this.current = ThreadLocal.withInitial(() -> new long[1]);
+    }
+
+    long current() {
+        return this.current.get()[0];
+    }
+
+    /**
+     * Opens a new span on the calling thread, which becomes the parent of all spans opened until it is closed.
+     *
+     * @return the id of the parent span, which must be passed to {@link #close(long, Class, long)}
+     */
+    long open() {
+        final long[] current = this.current.get();
+        final long parentId = current[0];
+
+        current[0] = this.ids.incrementAndGet();
+        return parentId;
+    }
+
+    void close(final long parentId, @NotNull final Class<?> eventType, final long startNanos) {
+        final long duration = System.nanoTime() - startNanos;
+        final long[] current = this.current.get();
+        final long spanId = current[0];
+        final long slot = this.writes.getAndIncrement();
+
+        current[0] = parentId;
+        this.spans.set((int) (slot & this.mask), new EventSpan(spanId, parentId, eventType, startNanos, duration,
+            Thread.currentThread().getName()));
+    }
+
+    /**
+     * Runs the given task with the given span as parent, which links spans across threads.
+     *
+     * @param spanId the span to continue
+     * @param task   the task to run
+     */
+    void resume(final long spanId, @NotNull final Runnable task) {
+        final long[] current = this.current.get();
+        final long previous = current[0];
+
+        current[0] = spanId;
+        try {
+            task.run();
+        } finally {
+            current[0] = previous;
+        }
+    }
+
+    @NotNull List<EventSpan> dump() {
+        final List<EventSpan> result = new ArrayList<>(this.spans.length());
+
+        for (int i = 0; i < this.spans.length(); i++) {
+            final EventSpan span = this.spans.get(i);
+
+            if (span != null) {
+                result.add(span);
+            }
+        }
+
+        result.sort(Comparator.comparingLong(EventSpan::id));
+        return result;
+    }
+}
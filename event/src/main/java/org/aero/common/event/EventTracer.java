@@ -0,0 +1,64 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.List;
+
+/**
+ * Represents the tracing of event dispatches. Tracing is enabled with the system property {@code aero.event.tracing}
+ * and records a {@link EventSpan} for every dispatch on an {@link EventBus}. A dispatch which happens inside a
+ * listener becomes a child of the dispatch which called the listener, also when the listener runs on its own
+ * executor, so the causal path of an event chain can be reconstructed.
+ *
+ * <p>The latest spans are kept in a ring buffer whose capacity is set by the system property
+ * {@code aero.event.tracing.capacity}, 4096 by default. When tracing is disabled, a dispatch only checks a constant.
+ */
+public final class EventTracer {
+
+    /**
+     * Whether tracing is enabled, read once from the system property {@code aero.event.tracing}.
+     */
+    public static final boolean ENABLED = Boolean.getBoolean("aero.event.tracing");
+
+    static final EventTraceRecorder RECORDER = ENABLED
+        ? new EventTraceRecorder(Integer.getInteger("aero.event.tracing.capacity", 4096))
+        : null;
+
+    private EventTracer() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns the id of the span which is active on the calling thread.
+     *
+     * @return the span id, or 0 if there is none or tracing is disabled
+     */
+    public static long currentSpanId() {
+        return ENABLED ? RECORDER.current() : 0;
+    }
+
+    /**
+     * Returns the recorded spans which are still in the ring buffer, ordered by their id.
+     *
+     * @return the recorded spans, empty if tracing is disabled
+     */
+    public static @NotNull List<EventSpan> dump() {
+        return ENABLED ? RECORDER.dump() : List.of();
+    }
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.LinkedHashSet;
+import java.util.Set;
+
+/**
+ * Resolves the full type hierarchy of event classes. The hierarchy of a class is computed once and is bound to the
+ * class through a {@link ClassValue}, so it is dropped together with the class when it gets unloaded.
+ */
+final class EventTypeHierarchy {
+
+    private static final ClassValue<Class<?>[]> HIERARCHY = new ClassValue<>() {
+        @Override
+        protected Class<?>[] computeValue(final Class<?> type) {
+            return EventTypeHierarchy.compute(type);
+        }
+    };
+
+    private EventTypeHierarchy() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Returns the given class followed by all of its superclasses and interfaces. Superclasses are ordered from the
+     * nearest to the farthest, interfaces follow in breadth-first order.
+     *
+     * @param type the class to resolve the hierarchy of
+     * @return the resolved hierarchy, which must not be modified
+     */
+    static Class<?> @NotNull [] of(@NotNull final Class<?> type) {
+        return HIERARCHY.get(type);
+    }
+
+    private static Class<?>[] compute(final Class<?> type) {
+        final Set<Class<?>> hierarchy = new LinkedHashSet<>();
+        final Deque<Class<?>> interfaces = new ArrayDeque<>();
+
+        for (Class<?> current = type; current != null; current = current.getSuperclass()) {
+            hierarchy.add(current);
+            interfaces.addAll(Arrays.asList(current.getInterfaces()));
+        }
+
+        while (!interfaces.isEmpty()) {
+            final Class<?> current = interfaces.poll();
+
+            if (hierarchy.add(current)) {
+                interfaces.addAll(Arrays.asList(current.getInterfaces()));
+            }
+        }
+
+        return hierarchy.toArray(Class<?>[]::new);
+    }
+}
@@ -0,0 +1,41 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.ParameterizedType;
+
+/**
+ * Represents an event which declares its type arguments, so it is only dispatched to the listeners of its raw class
+ * and to the {@link TypeToken} listeners whose type arguments match. The type arguments of a listener of a generic
+ * supertype are matched against the type arguments the event type passes to that supertype, an event type which
+ * extends it raw does not match. A class type argument of a listener matches the same class and its subclasses, a
+ * wildcard matches every type argument within its bounds, every other type argument has to be equal.
+ *
+ * <p>The dispatch targets are cached per generic type, so events should return a cached type, for example one
+ * created once per type argument with {@link TypeToken#parameterized(Class, java.lang.reflect.Type...)}.
+ */
+public interface GenericEvent {
+
+    /**
+     * Returns the generic type of this event.
+     *
+     * @return the generic type, whose raw type is the class the type arguments belong to
+     */
+    @NotNull ParameterizedType genericType();
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+/**
+ * Represents an event which decides itself on which lane of an {@link AsyncEventDispatcher} it is queued. The lane of
+ * the event takes precedence over the lane configured for its class.
+ */
+public interface LanedEvent {
+
+    /**
+     * Returns the lane on which the event is queued, where 0 is the lane with the highest priority.
+     *
+     * @return the lane of the event
+     */
+    int lane();
+
+}
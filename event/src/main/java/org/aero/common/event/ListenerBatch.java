@@ -0,0 +1,119 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Represents the buffer of a batching listener. A batch is delivered on the thread that fills it up to its maximum
+ * size, or by the timer of the event bus once the maximum delay after its first event has passed.
+ *
+ * @param <T> the event type being handled
+ */
+final class ListenerBatch<T> {
+
+    private final int maxSize;
+    private final long maxDelayNanos;
+    private final Consumer<List<T>> handler;
+
+    private List<T> buffer;
+    private long window;
+    private volatile TimerWheel timerWheel;
+    private volatile BiConsumer<List<T>, Exception> failureHandler;
+
+    ListenerBatch(final int maxSize, final long maxDelayNanos, @NotNull final Consumer<List<T>> handler) {
+        this.maxSize = maxSize;
+        this.maxDelayNanos = maxDelayNanos;
+        this.handler = handler;
+        this.buffer = new ArrayList<>(maxSize);
+    }
+
+    void attach(@NotNull final TimerWheel timerWheel, @NotNull final BiConsumer<List<T>, Exception> failureHandler) {
+        this.failureHandler = failureHandler;
+        this.timerWheel = timerWheel;
+    }
+
+    void add(@NotNull final T event) {
+        final List<T> batch;
+        final long window;
+
+        synchronized (this) {
+            this.buffer.add(event);
+
+            if (this.buffer.size() >= this.maxSize) {
+                batch = this.swap();
+                window = -1;
+            } else {
+                batch = null;
+                window = this.buffer.size() == 1 ? this.window : -1;
+            }
+        }
+
+        if (batch != null) {
+            this.handler.accept(batch);
+            return;
+        }
+
+        final TimerWheel timerWheel = this.timerWheel;
+
+        // the first event of a window schedules its delivery
+        if (window >= 0 && timerWheel != null && timerWheel.isRunning()) {
+            timerWheel.schedule(() -> this.flush(window), this.maxDelayNanos);
+        }
+    }
+
+    void flush() {
+        this.flush(-1);
+    }
+
+    private void flush(final long window) {
+        final List<T> batch;
+
+        synchronized (this) {
+            // a window which was already delivered because it was full is not flushed again
+            if (this.buffer.isEmpty() || (window >= 0 && window != this.window)) {
+                return;
+            }
+
+            batch = this.swap();
+        }
+
+        try {
+            this.handler.accept(batch);
+        } catch (final Exception exception) {
+            final BiConsumer<List<T>, Exception> failureHandler = this.failureHandler;
+
+            if (failureHandler == null) {
+                throw exception;
+            }
+
+            failureHandler.accept(batch, exception);
+        }
+    }
+
+    private List<T> swap() {
+        final List<T> batch = this.buffer;
+        this.buffer = new ArrayList<>(this.maxSize);
+        this.window++;
+        return batch;
+    }
+}
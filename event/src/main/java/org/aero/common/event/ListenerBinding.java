@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.Type;
+import java.util.concurrent.Executor;
+
+/**
+ * Represents a listener registered on a single event bus. The binding holds the state which belongs to the pair of
+ * bus and listener, so a listener registered on several buses does not share it between them.
+ *
+ * @param <T> the event type being handled
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+final class ListenerBinding<T> implements Comparable<ListenerBinding> {
+
+    private final EventListenerImpl<T> listener;
+    private final ListenerCircuit circuit;
+    private final ListenerBatch<T> batch;
+    private final ThreadLocal<int[]> nthCounter;
+
+    ListenerBinding(@NotNull final EventListenerImpl<T> listener) {
+        this.listener = listener;
+        this.circuit = new ListenerCircuit();
+        this.batch = listener.newBatch();
+        this.nthCounter = listener.newNthCounter();
+    }
+
+    @NotNull EventListenerImpl<T> listener() {
+        return this.listener;
+    }
+
+    @NotNull ListenerCircuit circuit() {
+        return this.circuit;
+    }
+
+    @Nullable ListenerBatch<T> batch() {
+        return this.batch;
+    }
+
+    @Nullable ThreadLocal<int[]> nthCounter() {
+        return this.nthCounter;
+    }
+
+    @NotNull Class<T> eventType() {
+        return this.listener.eventType();
+    }
+
+    @Nullable Type genericType() {
+        return this.listener.genericType();
+    }
+
+    @Nullable Executor executor() {
+        return this.listener.executor();
+    }
+
+    boolean sticky() {
+        return this.listener.sticky();
+    }
+
+    void handle(@NotNull final T event, final boolean checkCancelled) {
+        this.listener.handle(event, this, checkCancelled);
+    }
+
+    @Nullable Object respond(@NotNull final T event) {
+        return this.listener.respond(event, this);
+    }
+
+    @Override
+    public int compareTo(@NotNull final ListenerBinding other) {
+        return this.listener.compareTo(other.listener);
+    }
+}
@@ -0,0 +1,62 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Represents the circuit breaker state of a single listener. After too many consecutive failures the circuit is open
+ * and the listener is skipped until the cool-down has passed. The next invocation after the cool-down decides whether
+ * the circuit is closed again or tripped right away.
+ */
+final class ListenerCircuit {
+
+    private static final long CLOSED = 0;
+
+    private final AtomicInteger failures = new AtomicInteger();
+    private volatile long openUntil = CLOSED;
+
+    boolean isOpen() {
+        final long openUntil = this.openUntil;
+
+        if (openUntil == CLOSED) {
+            return false;
+        }
+
+        return System.nanoTime() - openUntil < 0;
+    }
+
+    void success() {
+        if (this.openUntil != CLOSED) {
+            this.openUntil = CLOSED;
+        }
+
+        if (this.failures.get() != 0) {
+            this.failures.set(0);
+        }
+    }
+
+    void failure(final int threshold, final long coolDownNanos) {
+        // a failure after the cool-down trips the circuit again without waiting for the threshold
+        if (this.openUntil == CLOSED && this.failures.incrementAndGet() < threshold) {
+            return;
+        }
+
+        this.failures.set(0);
+        this.openUntil = (System.nanoTime() + coolDownNanos) | 1;
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents the policy that invokes every listener in isolation. Exceptions are routed to the configured
+ * {@link ListenerExceptionHandler} and, if enabled, counted by the {@link ListenerCircuit} of the failing listener on
+ * this event bus.
+ */
+@SuppressWarnings({"rawtypes"})
+final class ListenerErrorPolicy {
+
+    private final ListenerExceptionHandler exceptionHandler;
+    private final int failureThreshold;
+    private final long coolDownNanos;
+
+    ListenerErrorPolicy(
+        @NotNull final ListenerExceptionHandler exceptionHandler,
+        final int failureThreshold,
+        final long coolDownNanos
+    ) {
+        this.exceptionHandler = exceptionHandler;
+        this.failureThreshold = failureThreshold;
+        this.coolDownNanos = coolDownNanos;
+    }
+
+    @NotNull ListenerExceptionHandler exceptionHandler() {
+        return this.exceptionHandler;
+    }
+
+    void invoke(@NotNull final ListenerBinding binding, @NotNull final Object event) {
+        this.invoke(binding, event, false, true);
+    }
+
+    void invokeHandedOver(@NotNull final ListenerBinding binding, @NotNull final Object event) {
+        // the cancellation was already checked when the listener was handed over to its executor
+        this.invoke(binding, event, false, false);
+    }
+
+    @Nullable Object respond(@NotNull final ListenerBinding binding, @NotNull final Object event) {
+        return this.invoke(binding, event, true, true);
+    }
+
+    void rejected(@NotNull final ListenerBinding binding, @NotNull final Object event, @NotNull final Exception exception) {
+        if (this.failureThreshold > 0) {
+            binding.circuit().failure(this.failureThreshold, this.coolDownNanos);
+        }
+
+        this.exceptionHandler.handle(binding.listener(), event, exception);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Object invoke(final ListenerBinding binding, final Object event, final boolean respond, final boolean checkCancelled) {
+        final boolean circuitBreaker = this.failureThreshold > 0;
+
+        if (circuitBreaker && binding.circuit().isOpen()) {
+            return null;
+        }
+
+        Object result = null;
+
+        try {
+            if (respond) {
+                result = binding.respond(event);
+            } else {
+                binding.handle(event, checkCancelled);
+            }
+        } catch (final Exception exception) {
+            if (circuitBreaker) {
+                binding.circuit().failure(this.failureThreshold, this.coolDownNanos);
+            }
+
+            this.exceptionHandler.handle(binding.listener(), event, exception);
+            return null;
+        }
+
+        if (circuitBreaker) {
+            binding.circuit().success();
+        }
+
+        return result;
+    }
+}
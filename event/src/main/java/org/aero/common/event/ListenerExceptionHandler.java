@@ -0,0 +1,44 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a handler for exceptions thrown by event listeners. Every listener is invoked in isolation, so an
+ * exception thrown by one listener is passed to this handler and does not prevent other listeners from being called.
+ *
+ * @see EventBus.Builder#exceptionHandler(ListenerExceptionHandler)
+ */
+@FunctionalInterface
+public interface ListenerExceptionHandler {
+
+    /**
+     * The default exception handler, which prints the stack trace of every exception thrown.
+     */
+    ListenerExceptionHandler PRINTING = (listener, event, exception) -> exception.printStackTrace();
+
+    /**
+     * Handles an exception thrown by an event listener.
+     *
+     * @param listener  the listener which threw the exception
+     * @param event     the event which was handled
+     * @param exception the thrown exception
+     */
+    void handle(@NotNull EventListener<?> listener, @NotNull Object event, @NotNull Exception exception);
+
+}
@@ -0,0 +1,72 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.EventType;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Represents the flight recorder event of a single listener handling an event.
+ */
+@Name("org.aero.common.event.ListenerInvocation")
+@Label("Listener Invocation")
+@Category({"AeroService", "Event"})
+@Description("The invocation of an event listener")
+final class ListenerInvocation extends Event {
+
+    @Label("Event Class")
+    Class<?> eventClass;
+
+    @Label("Priority")
+    int priority;
+
+    @Label("Cancelled")
+    @Description("Whether the event was cancelled after the listener ran")
+    boolean cancelled;
+
+    /**
+     * Returns whether this event is enabled in any running recording, so the event object is only allocated if it
+     * could be committed.
+     *
+     * @return true if this event is enabled
+     */
+    static boolean enabled() {
+        return Type.TYPE.isEnabled();
+    }
+
+    void commit(final Object event, final int priority) {
+        if (!this.shouldCommit()) {
+            return;
+        }
+
+        this.eventClass = event.getClass();
+        this.priority = priority;
+        this.cancelled = event instanceof CancellableEvent cancellableEvent && cancellableEvent.isCancelled();
+        this.commit();
+    }
+
+    // the event type is looked up lazily, so the event class is fully initialized before it is registered
+    private static final class Type {
+
+        private static final EventType TYPE = EventType.getEventType(ListenerInvocation.class);
+
+    }
+}
@@ -0,0 +1,465 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.lang.reflect.TypeVariable;
+import java.lang.reflect.WildcardType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * Represents an immutable snapshot of the listeners registered on an event bus, held as their {@link ListenerBinding}s.
+ * Every modification creates a new table, so a table can be read by any number of threads without synchronization.
+ *
+ * <p>The merged listeners of an event class are resolved lazily across its {@link EventTypeHierarchy} and cached in a
+ * map owned by the table, so the cache of a replaced table is collected together with it. The listeners of a
+ * {@link GenericEvent} are additionally cached per event class and generic type in the same way.
+ *
+ * <p>A {@link #prepared() prepared} table, as used by a frozen event bus, resolves the listeners of all registered event classes up front into a plain map
+ * which is only read afterwards. Only event classes without listeners of their own still go through the lazy cache.
+ */
+@SuppressWarnings({"rawtypes"})
+final class ListenerTable {
+
+    static final ListenerBinding[] NO_LISTENERS = new ListenerBinding[0];
+    static final ListenerTable EMPTY = new ListenerTable(Collections.emptyMap());
+
+    private final Map<Class<?>, ListenerBinding[]> listeners;
+    private final Map<Class<?>, ListenerBinding[]> prepared;
+    private final Map<Class<?>, ListenerBinding[]> resolved;
+    private final Map<Class<?>, Map<Type, ListenerBinding[]>> resolvedGeneric;
+
+    private ListenerTable(final Map<Class<?>, ListenerBinding[]> listeners) {
+        this(listeners, Collections.emptyMap());
+    }
+
+    private ListenerTable(final Map<Class<?>, ListenerBinding[]> listeners, final Map<Class<?>, ListenerBinding[]> prepared) {
+        this.listeners = listeners;
+        this.prepared = prepared;
+        this.resolved = new ConcurrentHashMap<>();
+        this.resolvedGeneric = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Returns all listeners which handle the given event class, ordered by their priority.
+     *
+     * @param type the event class
+     * @return the listeners, which must not be modified
+     */
+    ListenerBinding @NotNull [] resolve(@NotNull final Class<?> type) {
+        final ListenerBinding[] prepared = this.prepared.get(type);
+
+        if (prepared != null) {
+            return prepared;
+        }
+
+        final ListenerBinding[] resolved = this.resolved.get(type);
+
+        if (resolved != null) {
+            return resolved;
+        }
+
+        return this.resolved.computeIfAbsent(type, this::merge);
+    }
+
+    /**
+     * Returns all listeners which handle the given event, ordered by their priority. For a {@link GenericEvent} the
+     * listeners of other type arguments are left out, the result is cached per generic type.
+     *
+     * @param event the event
+     * @return the listeners, which must not be modified
+     */
+    ListenerBinding @NotNull [] resolve(@NotNull final Object event) {
+        final ListenerBinding[] handlers = this.resolve(event.getClass());
+
+        if (!(event instanceof GenericEvent genericEvent) || handlers.length == 0) {
+            return handlers;
+        }
+
+        final ParameterizedType genericType = genericEvent.genericType();
+        Map<Type, ListenerBinding[]> typeHandlers = this.resolvedGeneric.get(event.getClass());
+
+        if (typeHandlers == null) {
+            typeHandlers = this.resolvedGeneric.computeIfAbsent(event.getClass(), type -> new ConcurrentHashMap<>());
+        }
+
+        final ListenerBinding[] cached = typeHandlers.get(genericType);
+
+        if (cached != null) {
+            return cached;
+        }
+
+        return typeHandlers.computeIfAbsent(genericType, type -> filter(handlers, genericType));
+    }
+
+    /**
+     * Creates a table with the same listeners, which resolves the listeners of all registered event classes up front.
+     * The resolved listeners are held in a map that is never written again, so their lookup needs no synchronization.
+     *
+     * @return the prepared table, or this table if it is prepared already
+     */
+    @NotNull ListenerTable prepared() {
+        if (this.prepared.size() == this.listeners.size()) {
+            return this;
+        }
+
+        final Map<Class<?>, ListenerBinding[]> prepared = new HashMap<>(this.listeners.size() * 2);
+
+        for (final Class<?> type : this.listeners.keySet()) {
+            prepared.put(type, this.resolve(type));
+        }
+
+        return new ListenerTable(this.listeners, prepared);
+    }
+
+    void forEach(@NotNull final Consumer<ListenerBinding> action) {
+        for (final ListenerBinding[] typeListeners : this.listeners.values()) {
+            for (final ListenerBinding binding : typeListeners) {
+                action.accept(binding);
+            }
+        }
+    }
+
+    /**
+     * Performs the given action for every binding of this table which is not part of the given table.
+     *
+     * @param table  the table to compare with
+     * @param action the action to perform for every removed binding
+     */
+    void forEachRemoved(@NotNull final ListenerTable table, @NotNull final Consumer<ListenerBinding> action) {
+        if (table == this) {
+            return;
+        }
+
+        final Set<ListenerBinding> retained = Collections.newSetFromMap(new IdentityHashMap<>());
+        table.forEach(retained::add);
+
+        this.forEach(binding -> {
+            if (!retained.contains(binding)) {
+                action.accept(binding);
+            }
+        });
+    }
+
+    boolean contains(@NotNull final EventListenerImpl<?> listener) {
+        final ListenerBinding[] typeListeners = this.listeners.get(listener.eventType());
+
+        if (typeListeners == null) {
+            return false;
+        }
+
+        for (final ListenerBinding typeListener : typeListeners) {
+            if (typeListener.listener() == listener) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    @NotNull ListenerTable with(@NotNull final ListenerBinding<?> binding) {
+        if (this.contains(binding.listener())) {
+            return this;
+        }
+
+        final Map<Class<?>, ListenerBinding[]> listeners = new HashMap<>(this.listeners);
+        final ListenerBinding[] typeListeners = listeners.getOrDefault(binding.eventType(), NO_LISTENERS);
+        final ListenerBinding[] updated = Arrays.copyOf(typeListeners, typeListeners.length + 1);
+
+        updated[typeListeners.length] = binding;
+        Arrays.sort(updated);
+        listeners.put(binding.eventType(), updated);
+        return new ListenerTable(listeners);
+    }
+
+    /**
+     * Creates a table without the listeners that passed the predicate and with the given listeners, built in a single
+     * pass so no intermediate table is created.
+     *
+     * @param predicate the predicate of the listeners to remove
+     * @param added     the listeners to add
+     * @return the new table, or this table if nothing changed
+     */
+    @NotNull ListenerTable swap(
+        @NotNull final Predicate<EventListener<?>> predicate,
+        @NotNull final Collection<ListenerBinding<?>> added
+    ) {
+        final Map<Class<?>, List<ListenerBinding>> listeners = new HashMap<>();
+        final Set<EventListenerImpl<?>> present = Collections.newSetFromMap(new IdentityHashMap<>());
+        boolean modified = false;
+
+        for (final Map.Entry<Class<?>, ListenerBinding[]> entry : this.listeners.entrySet()) {
+            final List<ListenerBinding> remaining = new ArrayList<>(entry.getValue().length);
+
+            for (final ListenerBinding binding : entry.getValue()) {
+                if (predicate.test(binding.listener())) {
+                    modified = true;
+                    continue;
+                }
+
+                remaining.add(binding);
+                present.add(binding.listener());
+            }
+
+            listeners.put(entry.getKey(), remaining);
+        }
+
+        for (final ListenerBinding<?> binding : added) {
+            if (present.add(binding.listener())) {
+                listeners.computeIfAbsent(binding.eventType(), type -> new ArrayList<>()).add(binding);
+                modified = true;
+            }
+        }
+
+        if (!modified) {
+            return this;
+        }
+
+        final Map<Class<?>, ListenerBinding[]> table = new HashMap<>();
+
+        for (final Map.Entry<Class<?>, List<ListenerBinding>> entry : listeners.entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                continue;
+            }
+
+            final ListenerBinding[] typeListeners = entry.getValue().toArray(NO_LISTENERS);
+            Arrays.sort(typeListeners);
+            table.put(entry.getKey(), typeListeners);
+        }
+
+        return new ListenerTable(table);
+    }
+
+    @NotNull ListenerTable without(@NotNull final Predicate<EventListener<?>> predicate) {
+        final Map<Class<?>, ListenerBinding[]> listeners = new HashMap<>();
+        boolean modified = false;
+
+        for (final Map.Entry<Class<?>, ListenerBinding[]> entry : this.listeners.entrySet()) {
+            final List<ListenerBinding> remaining = new ArrayList<>(entry.getValue().length);
+
+            for (final ListenerBinding binding : entry.getValue()) {
+                if (predicate.test(binding.listener())) {
+                    modified = true;
+                    continue;
+                }
+
+                remaining.add(binding);
+            }
+
+            if (!remaining.isEmpty()) {
+                listeners.put(entry.getKey(), remaining.toArray(NO_LISTENERS));
+            }
+        }
+
+        if (!modified) {
+            return this;
+        }
+
+        return new ListenerTable(listeners);
+    }
+
+    /**
+     * Checks if a listener of the given generic type handles an event of the given generic type. The event type is
+     * resolved against the raw type of the listener through its generic supertypes first, so a listener of a generic
+     * supertype sees the type arguments the event type passes to it.
+     *
+     * @param listenerType the generic type of the listener, or null if it handles all type arguments
+     * @param eventType    the generic type of the event
+     * @return true if the listener handles the event
+     */
+    static boolean matches(@Nullable final Type listenerType, @NotNull final ParameterizedType eventType) {
+        if (!(listenerType instanceof ParameterizedType parameterizedType)) {
+            return true;
+        }
+
+        // an event type which does not pass type arguments to the raw type of the listener can not be matched
+        final Type[] eventArguments = typeArguments(eventType, (Class<?>) parameterizedType.getRawType());
+
+        if (eventArguments == null) {
+            return false;
+        }
+
+        final Type[] listenerArguments = parameterizedType.getActualTypeArguments();
+
+        for (int i = 0; i < listenerArguments.length; i++) {
+            if (!matchesArgument(listenerArguments[i], eventArguments[i])) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static boolean matchesArgument(final Type listenerArgument, final Type eventArgument) {
+        if (listenerArgument instanceof WildcardType wildcardType) {
+            for (final Type upperBound : wildcardType.getUpperBounds()) {
+                if (!isSubtype(eventArgument, upperBound)) {
+                    return false;
+                }
+            }
+
+            for (final Type lowerBound : wildcardType.getLowerBounds()) {
+                if (!isSubtype(lowerBound, eventArgument)) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+
+        if (listenerArgument instanceof Class<?> listenerClass && eventArgument instanceof Class<?> eventClass) {
+            return listenerClass.isAssignableFrom(eventClass);
+        }
+
+        return listenerArgument.equals(eventArgument);
+    }
+
+    private static boolean isSubtype(final Type type, final Type superType) {
+        if (superType == Object.class) {
+            return true;
+        }
+
+        final Class<?> rawType = rawType(type);
+        final Class<?> rawSuperType = rawType(superType);
+        return rawType != null && rawSuperType != null && rawSuperType.isAssignableFrom(rawType);
+    }
+
+    private static @Nullable Class<?> rawType(final Type type) {
+        if (type instanceof Class<?> clazz) {
+            return clazz;
+        }
+
+        return type instanceof ParameterizedType parameterizedType ? (Class<?>) parameterizedType.getRawType() : null;
+    }
+
+    private static Type @Nullable [] typeArguments(final ParameterizedType type, final Class<?> target) {
+        final Class<?> rawType = (Class<?>) type.getRawType();
+
+        if (rawType == target) {
+            return type.getActualTypeArguments();
+        }
+
+        if (!target.isAssignableFrom(rawType)) {
+            return null;
+        }
+
+        return typeArguments(rawType, type.getActualTypeArguments(), target);
+    }
+
+    private static Type @Nullable [] typeArguments(final Class<?> type, final Type[] arguments, final Class<?> target) {
+        final TypeVariable<?>[] variables = type.getTypeParameters();
+        final Map<TypeVariable<?>, Type> bindings = new HashMap<>(variables.length);
+
+        for (int i = 0; i < variables.length; i++) {
+            bindings.put(variables[i], arguments[i]);
+        }
+
+        final List<Type> superTypes = new ArrayList<>(Arrays.asList(type.getGenericInterfaces()));
+
+        if (type.getGenericSuperclass() != null) {
+            superTypes.add(0, type.getGenericSuperclass());
+        }
+
+        for (final Type superType : superTypes) {
+            final Class<?> rawSuperType = rawType(superType);
+
+            if (rawSuperType == null || !target.isAssignableFrom(rawSuperType)) {
+                continue;
+            }
+
+            // a raw supertype does not pass any type arguments
+            if (!(superType instanceof ParameterizedType parameterizedType)) {
+                return null;
+            }
+
+            final Type[] superArguments = parameterizedType.getActualTypeArguments();
+
+            for (int i = 0; i < superArguments.length; i++) {
+                superArguments[i] = substitute(superArguments[i], bindings);
+            }
+
+            return rawSuperType == target ? superArguments : typeArguments(rawSuperType, superArguments, target);
+        }
+
+        return null;
+    }
+
+    private static Type substitute(final Type type, final Map<TypeVariable<?>, Type> bindings) {
+        if (type instanceof TypeVariable<?> variable) {
+            return bindings.getOrDefault(variable, variable);
+        }
+
+        if (!(type instanceof ParameterizedType parameterizedType)) {
+            return type;
+        }
+
+        final Type[] arguments = parameterizedType.getActualTypeArguments();
+
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = substitute(arguments[i], bindings);
+        }
+
+        return new ParameterizedTypeImpl((Class<?>) parameterizedType.getRawType(), arguments);
+    }
+
+    private static ListenerBinding[] filter(final ListenerBinding[] handlers, final ParameterizedType genericType) {
+        final List<ListenerBinding> matching = new ArrayList<>(handlers.length);
+
+        for (final ListenerBinding handler : handlers) {
+            if (matches(handler.genericType(), genericType)) {
+                matching.add(handler);
+            }
+        }
+
+        return matching.size() == handlers.length ? handlers : matching.toArray(NO_LISTENERS);
+    }
+
+    private ListenerBinding[] merge(final Class<?> type) {
+        final List<ListenerBinding> merged = new ArrayList<>();
+
+        for (final Class<?> superType : EventTypeHierarchy.of(type)) {
+            final ListenerBinding[] typeListeners = this.listeners.get(superType);
+
+            if (typeListeners != null) {
+                merged.addAll(Arrays.asList(typeListeners));
+            }
+        }
+
+        if (merged.isEmpty()) {
+            return NO_LISTENERS;
+        }
+
+        final ListenerBinding[] result = merged.toArray(NO_LISTENERS);
+        Arrays.sort(result);
+        return result;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Arrays;
+import java.util.Objects;
+
+/**
+ * Represents a parameterized type which is created at runtime. Equality and hash code follow the contract of the
+ * types reflected by the JDK, so both can be used as the same map key.
+ */
+final class ParameterizedTypeImpl implements ParameterizedType {
+
+    private final Class<?> rawType;
+    private final Type[] typeArguments;
+    private final Type ownerType;
+
+    ParameterizedTypeImpl(@NotNull final Class<?> rawType, @NotNull final Type[] typeArguments) {
+        this.rawType = rawType;
+        this.typeArguments = typeArguments;
+        this.ownerType = rawType.getDeclaringClass();
+    }
+
+    @Override
+    public Type @NotNull [] getActualTypeArguments() {
+        return this.typeArguments.clone();
+    }
+
+    @Override
+    public @NotNull Type getRawType() {
+        return this.rawType;
+    }
+
+    @Override
+    public Type getOwnerType() {
+        return this.ownerType;
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+        return other instanceof ParameterizedType type
+            && this.rawType.equals(type.getRawType())
+            && Objects.equals(this.ownerType, type.getOwnerType())
+            && Arrays.equals(this.typeArguments, type.getActualTypeArguments());
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(this.typeArguments) ^ Objects.hashCode(this.ownerType) ^ this.rawType.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        final StringBuilder builder = new StringBuilder(this.rawType.getName()).append('<');
+
+        for (int i = 0; i < this.typeArguments.length; i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(this.typeArguments[i].getTypeName());
+        }
+
+        return builder.append('>').toString();
+    }
+}
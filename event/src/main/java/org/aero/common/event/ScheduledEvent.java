@@ -0,0 +1,55 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents an event which is scheduled to be called later on an {@link EventBus}.
+ *
+ * @see EventBus#callLater(Object, java.time.Duration)
+ */
+public sealed interface ScheduledEvent permits ScheduledEventImpl {
+
+    /**
+     * Returns the scheduled event.
+     *
+     * @return the event
+     */
+    @NotNull Object event();
+
+    /**
+     * Cancels the call of the event, if it was not called yet.
+     *
+     * @return true if the call was cancelled, false if the event was already called or cancelled
+     */
+    boolean cancel();
+
+    /**
+     * Checks if the call of the event was cancelled.
+     *
+     * @return true if the call was cancelled
+     */
+    boolean isCancelled();
+
+    /**
+     * Checks if the event was already called.
+     *
+     * @return true if the event was called
+     */
+    boolean isCalled();
+}
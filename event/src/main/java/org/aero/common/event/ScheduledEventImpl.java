@@ -0,0 +1,50 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.jetbrains.annotations.NotNull;
+
+final class ScheduledEventImpl implements ScheduledEvent {
+
+    private final Object event;
+    private final TimerWheel.Timeout timeout;
+
+    ScheduledEventImpl(final Object event, final TimerWheel.Timeout timeout) {
+        this.event = event;
+        this.timeout = timeout;
+    }
+
+    @Override
+    public @NotNull Object event() {
+        return this.event;
+    }
+
+    @Override
+    public boolean cancel() {
+        return this.timeout.cancel();
+    }
+
+    @Override
+    public boolean isCancelled() {
+        return this.timeout.isCancelled();
+    }
+
+    @Override
+    public boolean isCalled() {
+        return this.timeout.isExpired();
+    }
+}
@@ -0,0 +1,174 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.aero.common.core.builder.IBuilder;
+import org.aero.common.core.validate.Check;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+/**
+ * Represents a facade over several independent event buses, the shards. Every shard is dispatched by its own worker
+ * thread, and every event is routed to exactly one shard by a partition function, so producers on many threads do not
+ * contend on a single bus. Listeners are registered on every shard.
+ *
+ * <p>Events of the same partition are dispatched in the order they were called, events of different partitions may be
+ * dispatched concurrently. A listener must therefore be safe to be invoked from several worker threads at once. The
+ * state the event bus keeps for a listener, such as its circuit breaker, its batch buffer and its every n-th counter,
+ * is kept per shard, so a listener failing on one shard keeps being invoked on the others.
+ *
+ * <p>Every shard built with {@link EventBus.Builder#dedup(java.util.function.Function, int)} deduplicates only the
+ * events of its own partitions. Duplicates are only detected reliably if the partitioner routes events with equal ids
+ * to the same shard, for example by partitioning on the dedup id.
+ */
+public sealed interface ShardedEventBus extends AutoCloseable permits ShardedEventBusImpl {
+
+    /**
+     * Creates a new {@link Builder} for a sharded event bus.
+     *
+     * @return the created sharded event bus builder
+     */
+    static @NotNull Builder builder() {
+        return new ShardedEventBusImpl.BuilderImpl();
+    }
+
+    /**
+     * Registers an {@link EventListener} on every shard.
+     *
+     * @param listener the event listener
+     * @throws IllegalStateException if a shard is frozen
+     */
+    void register(@NotNull EventListener<?> listener);
+
+    /**
+     * Registers an {@link EventListener} without any special options on every shard.
+     *
+     * @param type    the event type to handle
+     * @param handler the handler function
+     * @param <T>     the event type to handle
+     */
+    default <T> void register(@NotNull Class<T> type, @NotNull Consumer<T> handler) {
+        Check.notNull(type, "type");
+        Check.notNull(handler, "handler");
+        this.register(EventListener.of(type, handler));
+    }
+
+    /**
+     * Unregisters an {@link EventListener} from every shard.
+     *
+     * @param listener the event listener
+     * @throws IllegalStateException if a shard is frozen
+     */
+    void unregister(@NotNull EventListener<?> listener);
+
+    /**
+     * Unregisters all {@link EventListener} that passed the condition from every shard.
+     *
+     * @param predicate the event listener
+     * @throws IllegalStateException if a shard is frozen
+     */
+    void unregisterIf(@NotNull Predicate<EventListener<?>> predicate);
+
+    /**
+     * Swaps listeners on every shard, see {@link EventBus#swap(Predicate, Collection)}. The swap is atomic per shard.
+     *
+     * @param remove the condition of the listeners to unregister
+     * @param add    the listeners to register
+     * @throws IllegalStateException if a shard is frozen
+     */
+    void swap(@NotNull Predicate<EventListener<?>> remove, @NotNull Collection<? extends EventListener<?>> add);
+
+    /**
+     * Queues an event on the shard of its partition, which dispatches it on its worker thread.
+     *
+     * @param event the event to call
+     * @throws IllegalStateException if the sharded event bus is closed
+     */
+    void call(@NotNull Object event);
+
+    /**
+     * Returns the amount of shards.
+     *
+     * @return the amount of shards
+     */
+    int shardCount();
+
+    /**
+     * Returns the shard with the given index, for example to read its counters.
+     *
+     * @param index the index of the shard
+     * @return the event bus of the shard
+     */
+    @NotNull EventBus shard(int index);
+
+    /**
+     * Returns the amount of queued events of all shards which were not dispatched yet.
+     *
+     * @return the amount of pending events
+     */
+    int pending();
+
+    /**
+     * Stops accepting new events, dispatches the pending events of all shards and shuts the shards down.
+     */
+    @Override
+    void close();
+
+    /**
+     * Represents a builder for a sharded event bus.
+     */
+    sealed interface Builder extends IBuilder<ShardedEventBus> permits ShardedEventBusImpl.BuilderImpl {
+
+        /**
+         * Sets the amount of shards. The default is the amount of available processors.
+         *
+         * @param shards the amount of shards
+         * @return this builder, for chaining
+         */
+        @NotNull Builder shards(int shards);
+
+        /**
+         * Sets the function which returns the partition of an event, the shard is chosen by its value modulo the amount
+         * of shards. The default is the hash code of the event.
+         *
+         * @param partitioner the partition function
+         * @return this builder, for chaining
+         */
+        @NotNull Builder partitioner(@NotNull ToIntFunction<Object> partitioner);
+
+        /**
+         * Sets the builder every shard is built with. The default is {@link EventBus#builder()}. Every shard has its own
+         * dedup stage, see {@link ShardedEventBus}.
+         *
+         * @param shardBuilder the builder of the shards
+         * @return this builder, for chaining
+         */
+        @NotNull Builder shardBuilder(@NotNull EventBus.Builder shardBuilder);
+
+        /**
+         * Builds the sharded event bus and starts the worker threads.
+         *
+         * @return the started sharded event bus
+         */
+        @Override
+        @NotNull ShardedEventBus build();
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.aero.common.core.validate.Check;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Collection;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+final class ShardedEventBusImpl implements ShardedEventBus {
+
+    private final EventBus[] shards;
+    private final AsyncEventDispatcher[] workers;
+    private final ToIntFunction<Object> partitioner;
+
+    ShardedEventBusImpl(final BuilderImpl builder) {
+        this.shards = new EventBus[builder.shards];
+        this.workers = new AsyncEventDispatcher[builder.shards];
+        this.partitioner = builder.partitioner;
+
+        for (int i = 0; i < this.shards.length; i++) {
+            this.shards[i] = builder.shardBuilder.build();
+            this.workers[i] = AsyncEventDispatcher.builder(this.shards[i])
+                .threadName("event-shard-" + i)
+                .build();
+        }
+    }
+
+    @Override
+    public void register(@NotNull final EventListener<?> listener) {
+        Check.notNull(listener, "listener");
+        for (final EventBus shard : this.shards) {
+            shard.register(listener);
+        }
+    }
+
+    @Override
+    public void unregister(@NotNull final EventListener<?> listener) {
+        Check.notNull(listener, "listener");
+        for (final EventBus shard : this.shards) {
+            shard.unregister(listener);
+        }
+    }
+
+    @Override
+    public void unregisterIf(@NotNull final Predicate<EventListener<?>> predicate) {
+        Check.notNull(predicate, "predicate");
+        for (final EventBus shard : this.shards) {
+            shard.unregisterIf(predicate);
+        }
+    }
+
+    @Override
+    public void swap(@NotNull final Predicate<EventListener<?>> remove, @NotNull final Collection<? extends EventListener<?>> add) {
+        Check.notNull(remove, "remove");
+        Check.notNull(add, "add");
+        for (final EventBus shard : this.shards) {
+            shard.swap(remove, add);
+        }
+    }
+
+    @Override
+    public void call(@NotNull final Object event) {
+        Check.notNull(event, "event");
+        this.workers[Math.floorMod(this.partitioner.applyAsInt(event), this.workers.length)].enqueue(event);
+    }
+
+    @Override
+    public int shardCount() {
+        return this.shards.length;
+    }
+
+    @Override
+    public @NotNull EventBus shard(final int index) {
+        Check.argCondition(index < 0 || index >= this.shards.length, "index {0} is out of bounds", index);
+        return this.shards[index];
+    }
+
+    @Override
+    public int pending() {
+        int pending = 0;
+
+        for (final AsyncEventDispatcher worker : this.workers) {
+            pending += worker.pending();
+        }
+
+        return pending;
+    }
+
+    @Override
+    public void close() {
+        for (final AsyncEventDispatcher worker : this.workers) {
+            worker.close();
+        }
+
+        for (final EventBus shard : this.shards) {
+            shard.shutdown();
+        }
+    }
+
+    static final class BuilderImpl implements ShardedEventBus.Builder {
+
+        private int shards = Runtime.getRuntime().availableProcessors();
+        private ToIntFunction<Object> partitioner = Object::hashCode;
+        private EventBus.Builder shardBuilder = EventBus.builder();
+
+        BuilderImpl() {
+
+        }
+
+        @Override
+        public ShardedEventBus.@NotNull Builder shards(final int shards) {
+            Check.argCondition(shards <= 0, "shards must be positive");
+            this.shards = shards;
+            return this;
+        }
+
+        @Override
+        public ShardedEventBus.@NotNull Builder partitioner(@NotNull final ToIntFunction<Object> partitioner) {
+            Check.notNull(partitioner, "partitioner");
+            this.partitioner = partitioner;
+            return this;
+        }
+
+        @Override
+        public ShardedEventBus.@NotNull Builder shardBuilder(@NotNull final EventBus.Builder shardBuilder) {
+            Check.notNull(shardBuilder, "shardBuilder");
+            this.shardBuilder = shardBuilder;
+            return this;
+        }
+
+        @Override
+        public @NotNull ShardedEventBus build() {
+            return new ShardedEventBusImpl(this);
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.aero.common.core.validate.Check;
+import org.jetbrains.annotations.NotNull;
+
+/**
+ * Represents a queue of events which are called on an {@link EventBus} by a fixed rate loop, for example the main tick
+ * of a server. Any thread may enqueue events without locking, the loop drains them once per tick within a time budget
+ * and events which did not fit are carried over to the next tick.
+ */
+public sealed interface TickEventQueue permits TickEventQueueImpl {
+
+    /**
+     * Creates a new tick event queue.
+     *
+     * @param eventBus the event bus to call the events on
+     * @return the created queue
+     */
+    static @NotNull TickEventQueue create(@NotNull final EventBus eventBus) {
+        Check.notNull(eventBus, "eventBus");
+        return new TickEventQueueImpl(eventBus);
+    }
+
+    /**
+     * Queues an event to be called on the next drain.
+     *
+     * @param event the event to queue
+     */
+    void enqueue(@NotNull Object event);
+
+    /**
+     * Calls the queued events in their order until the queue is empty or the time budget is used up. At least one
+     * event is called per drain, so the queue always makes progress, and events which are queued while draining are
+     * left for the next drain. This method must only be called by the loop thread.
+     *
+     * @param nanosBudget the time budget of this drain in nanoseconds
+     * @return the amount of called events
+     */
+    int drain(long nanosBudget);
+
+    /**
+     * Returns the amount of queued events which were not called yet.
+     *
+     * @return the amount of pending events
+     */
+    int pending();
+
+    /**
+     * Returns how many drains ran out of their time budget and carried events over to the next drain.
+     *
+     * @return the amount of drains which carried over events
+     */
+    long carriedOverTicks();
+
+    /**
+     * Returns the sum of the events which were carried over at the end of every drain, so an event which waited for
+     * three drains is counted three times.
+     *
+     * @return the amount of carried over events
+     */
+    long carriedOverCount();
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.aero.common.core.validate.Check;
+import org.jetbrains.annotations.NotNull;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+final class TickEventQueueImpl implements TickEventQueue {
+
+    private final EventBus eventBus;
+    private final Queue<Object> queue;
+    private final AtomicInteger pending;
+
+    // only written by the loop thread
+    private volatile long carriedOverTicks;
+    private volatile long carriedOverCount;
+
+    TickEventQueueImpl(final EventBus eventBus) {
+        this.eventBus = eventBus;
+        this.queue = new ConcurrentLinkedQueue<>();
+        this.pending = new AtomicInteger();
+    }
+
+    @Override
+    public void enqueue(@NotNull final Object event) {
+        Check.notNull(event, "event");
+        this.pending.incrementAndGet();
+        this.queue.add(event);
+    }
+
+    @Override
+    public int drain(final long nanosBudget) {
+        Check.argCondition(nanosBudget < 0, "nanosBudget must not be negative");
+        final long start = System.nanoTime();
+        final int limit = this.pending.get();
+        int called = 0;
+
+        while (called < limit) {
+            final Object event = this.queue.poll();
+
+            if (event == null) {
+                break;
+            }
+
+            this.pending.decrementAndGet();
+            called++;
+
+            try {
+                this.eventBus.call(event);
+            } catch (final Exception exception) {
+                exception.printStackTrace();
+            }
+
+            if (System.nanoTime() - start >= nanosBudget) {
+                break;
+            }
+        }
+
+        // an event which is counted but not yet added to the queue belongs to the next drain anyway
+        final int carriedOver = Math.min(limit - called, this.pending.get());
+
+        if (carriedOver > 0) {
+            this.carriedOverTicks++;
+            this.carriedOverCount += carriedOver;
+        }
+
+        return called;
+    }
+
+    @Override
+    public int pending() {
+        return this.pending.get();
+    }
+
+    @Override
+    public long carriedOverTicks() {
+        return this.carriedOverTicks;
+    }
+
+    @Override
+    public long carriedOverCount() {
+        return this.carriedOverCount;
+    }
+}
@@ -0,0 +1,268 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Represents a hashed timer wheel which runs delayed tasks on a single thread. The wheel is split into buckets of one
+ * tick each, a timeout is placed into the bucket of its deadline and carries the amount of full rotations it has to
+ * wait, so scheduling and cancelling are constant time regardless of the amount of pending timeouts.
+ *
+ * <p>New timeouts are handed to the wheel thread through a lock-free queue, the buckets are only touched by the wheel
+ * thread. Tasks run on the wheel thread and should not block, a slow task delays all following timeouts. While no
+ * timeout is pending the wheel thread does not tick, it sleeps until the next timeout is scheduled.
+ */
+final class TimerWheel {
+
+    private static final int PENDING = 0;
+    private static final int CANCELLED = 1;
+    private static final int EXPIRED = 2;
+
+    // bounds the transfer per tick, so a flood of new timeouts can not stall the expiry of due ones
+    private static final int MAX_TRANSFERS_PER_TICK = 100_000;
+
+    private final long tickNanos;
+    private final List<Timeout>[] buckets;
+    private final int mask;
+    private final Queue<Timeout> added;
+    private final AtomicInteger pending;
+    private final Thread worker;
+    private final long startNanos;
+
+    private volatile boolean running = true;
+    private volatile boolean idle = false;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    TimerWheel(@NotNull final String threadName, final long tickNanos, final int wheelSize) {
+        final int size = Integer.highestOneBit(Math.max(wheelSize, 2) - 1) << 1;
+
+        this.tickNanos = tickNanos;
+        this.buckets = new List[size];
+        this.mask = size - 1;
+        this.added = new ConcurrentLinkedQueue<>();
+        this.pending = new AtomicInteger();
+
+        for (int i = 0; i < size; i++) {
+            this.buckets[i] = new ArrayList<>();
+        }
+
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, threadName);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    /**
+     * Schedules a task to run once the given delay has passed, rounded up to the next tick. A task scheduled on a
+     * stopped wheel never runs, its timeout is returned cancelled.
+     *
+     * @param task       the task to run
+     * @param delayNanos the delay in nanoseconds
+     * @return the timeout, which can be cancelled
+     */
+    @NotNull Timeout schedule(@NotNull final Runnable task, final long delayNanos) {
+        final Timeout timeout = new Timeout(this, task, System.nanoTime() + Math.max(0, delayNanos));
+
+        // the pending count is raised before the state is checked, so an idle wheel thread either sees it or is woken up
+        this.pending.incrementAndGet();
+        if (!this.running) {
+            timeout.cancel();
+            return timeout;
+        }
+
+        this.added.add(timeout);
+        if (this.idle) {
+            LockSupport.unpark(this.worker);
+        }
+        return timeout;
+    }
+
+    int pending() {
+        return this.pending.get();
+    }
+
+    /**
+     * Returns the amount of timeouts which were scheduled but not taken over by the wheel thread yet, including
+     * cancelled ones which were not dropped yet. The queue is walked, so this is meant for tests and diagnostics.
+     *
+     * @return the amount of queued timeouts
+     */
+    int queued() {
+        return this.added.size();
+    }
+
+    boolean isRunning() {
+        return this.running;
+    }
+
+    /**
+     * Stops the wheel thread, timeouts which did not expire yet are dropped.
+     */
+    void stop() {
+        this.running = false;
+        LockSupport.unpark(this.worker);
+
+        if (Thread.currentThread() == this.worker) {
+            return;
+        }
+
+        try {
+            this.worker.join();
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void run() {
+        long tick = 0;
+
+        while (this.running) {
+            if (this.pending.get() == 0) {
+                this.sleep();
+                // no pending timeout is in a bucket, so the ticks which passed while sleeping are skipped
+                tick = Math.max(tick, (System.nanoTime() - this.startNanos) / this.tickNanos);
+                continue;
+            }
+
+            final long tickDeadline = this.startNanos + (tick + 1) * this.tickNanos;
+            final long sleepNanos = tickDeadline - System.nanoTime();
+
+            if (sleepNanos > 0) {
+                LockSupport.parkNanos(this, sleepNanos);
+                continue;
+            }
+
+            this.transfer(tick);
+            this.expire(this.buckets[(int) (tick & this.mask)]);
+            tick++;
+        }
+    }
+
+    private void sleep() {
+        // without a pending timeout every queued or bucketed one is cancelled or expired, they are dropped before
+        // sleeping so their tasks do not stay reachable, a timeout scheduled concurrently is only ever in the queue
+        this.added.removeIf(timeout -> timeout.state.get() != PENDING);
+        for (final List<Timeout> bucket : this.buckets) {
+            bucket.clear();
+        }
+
+        // the flag is set before the pending count is checked again, so a schedule either sees it or is seen here
+        this.idle = true;
+        if (this.pending.get() == 0 && this.running) {
+            LockSupport.park(this);
+        }
+        this.idle = false;
+    }
+
+    private void transfer(final long tick) {
+        for (int i = 0; i < MAX_TRANSFERS_PER_TICK; i++) {
+            final Timeout timeout = this.added.poll();
+
+            if (timeout == null) {
+                return;
+            }
+
+            if (timeout.state.get() != PENDING) {
+                continue;
+            }
+
+            // a timeout whose deadline already passed expires with the current tick
+            final long elapsed = timeout.deadline - this.startNanos;
+            final long deadlineTick = Math.max((elapsed + this.tickNanos - 1) / this.tickNanos - 1, tick);
+
+            timeout.rounds = (deadlineTick - tick) / this.buckets.length;
+            this.buckets[(int) (deadlineTick & this.mask)].add(timeout);
+        }
+    }
+
+    private void expire(final List<Timeout> bucket) {
+        int kept = 0;
+
+        for (int i = 0; i < bucket.size(); i++) {
+            final Timeout timeout = bucket.get(i);
+
+            if (timeout.state.get() != PENDING) {
+                continue;
+            }
+
+            if (timeout.rounds > 0) {
+                timeout.rounds--;
+                bucket.set(kept++, timeout);
+                continue;
+            }
+
+            if (timeout.state.compareAndSet(PENDING, EXPIRED)) {
+                this.pending.decrementAndGet();
+                try {
+                    timeout.task.run();
+                } catch (final Throwable throwable) {
+                    // a failing task must not stop the wheel thread, the following timeouts would never expire
+                    throwable.printStackTrace();
+                }
+            }
+        }
+
+        bucket.subList(kept, bucket.size()).clear();
+    }
+
+    /**
+     * Represents a task which is scheduled on a {@link TimerWheel}.
+     */
+    static final class Timeout {
+
+        private final TimerWheel wheel;
+        private final Runnable task;
+        private final long deadline;
+        private final AtomicInteger state;
+
+        // only accessed by the wheel thread
+        private long rounds;
+
+        private Timeout(final TimerWheel wheel, final Runnable task, final long deadline) {
+            this.wheel = wheel;
+            this.task = task;
+            this.deadline = deadline;
+            this.state = new AtomicInteger(PENDING);
+        }
+
+        boolean cancel() {
+            if (!this.state.compareAndSet(PENDING, CANCELLED)) {
+                return false;
+            }
+
+            // the timeout stays in its bucket until the wheel passes it or goes idle
+            this.wheel.pending.decrementAndGet();
+            return true;
+        }
+
+        boolean isCancelled() {
+            return this.state.get() == CANCELLED;
+        }
+
+        boolean isExpired() {
+            return this.state.get() == EXPIRED;
+        }
+    }
+}
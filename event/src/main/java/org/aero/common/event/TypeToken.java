@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.aero.common.core.validate.Check;
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.reflect.GenericArrayType;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+
+/**
+ * Represents a full generic type, captured by creating an anonymous subclass, for example
+ * {@code new TypeToken<EntityEvent<Player>>() {}}. A listener built from a token only receives {@link GenericEvent}s
+ * whose type arguments match the ones of the token.
+ *
+ * @param <T> the captured type
+ * @see EventListener#builder(TypeToken)
+ */
+public abstract class TypeToken<T> {
+
+    private final Type type;
+    private final Class<? super T> rawType;
+
+    /**
+     * Creates a new type token, capturing the type argument of the subclass.
+     */
+    @SuppressWarnings("unchecked")
+    protected TypeToken() {
+        final Type superclass = this.getClass().getGenericSuperclass();
+
+        Check.stateCondition(!(superclass instanceof ParameterizedType), "A type token must be created with a type argument");
+        this.type = ((ParameterizedType) superclass).getActualTypeArguments()[0];
+        this.rawType = (Class<? super T>) rawType(this.type);
+    }
+
+    /**
+     * Creates the parameterized type of the given class and type arguments, which equals the type the JDK reflects
+     * for the same declaration. Events should cache the created types instead of creating them on every call.
+     *
+     * @param rawType       the generic class
+     * @param typeArguments the type arguments
+     * @return the parameterized type
+     * @see GenericEvent#genericType()
+     */
+    public static @NotNull ParameterizedType parameterized(@NotNull final Class<?> rawType, @NotNull final Type... typeArguments) {
+        Check.notNull(rawType, "rawType");
+        Check.notNull(typeArguments, "typeArguments");
+        Check.argCondition(rawType.getTypeParameters().length != typeArguments.length,
+            "{0} requires {1} type arguments", rawType.getName(), rawType.getTypeParameters().length);
+        return new ParameterizedTypeImpl(rawType, typeArguments.clone());
+    }
+
+    /**
+     * Returns the captured type.
+     *
+     * @return the type
+     */
+    public final @NotNull Type type() {
+        return this.type;
+    }
+
+    /**
+     * Returns the class of the captured type, without its type arguments.
+     *
+     * @return the raw class
+     */
+    public final @NotNull Class<? super T> rawType() {
+        return this.rawType;
+    }
+
+    @Override
+    public final boolean equals(final Object other) {
+        return other instanceof TypeToken<?> token && this.type.equals(token.type);
+    }
+
+    @Override
+    public final int hashCode() {
+        return this.type.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return this.type.getTypeName();
+    }
+
+    private static Class<?> rawType(final Type type) {
+        if (type instanceof Class<?> clazz) {
+            return clazz;
+        }
+
+        if (type instanceof ParameterizedType parameterizedType) {
+            return (Class<?>) parameterizedType.getRawType();
+        }
+
+        if (type instanceof GenericArrayType arrayType) {
+            return rawType(arrayType.getGenericComponentType()).arrayType();
+        }
+
+        throw new IllegalStateException("The type " + type.getTypeName() + " can not be captured by a type token");
+    }
+}
@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event.bridge;
+
+import org.aero.common.core.validate.Check;
+import org.aero.common.event.EventBus;
+import org.aero.common.event.codec.EventCodecRegistry;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+
+/**
+ * Represents the sending side of an event bridge. A forwarder listens to the selected event types on its source
+ * {@link EventBus} and forwards them over a Unix domain socket to an {@link EventReceiver} in another process.
+ *
+ * <p>Events are encoded on the calling thread and written in batches by a dedicated writer thread. Events which were
+ * received by an {@link EventReceiver} targeting the same event bus are not forwarded again, events called on the
+ * source event bus by listeners of a received event on another event bus are forwarded as usual.
+ */
+public sealed interface EventForwarder extends AutoCloseable permits EventForwarderImpl {
+
+    /**
+     * Connects a new forwarder to the receiver bound to the given socket file.
+     *
+     * @param socket the socket file the receiver is bound to
+     * @param source the event bus to forward events from
+     * @param codecs the codecs of the forwarded events
+     * @param types  the event types to forward, each needs a codec registered for it
+     * @return the connected forwarder
+     * @throws IOException if the connection failed
+     */
+    static @NotNull EventForwarder connect(
+        @NotNull final Path socket,
+        @NotNull final EventBus source,
+        @NotNull final EventCodecRegistry codecs,
+        @NotNull final Collection<Class<?>> types
+    ) throws IOException {
+        Check.notNull(socket, "socket");
+        Check.notNull(source, "source");
+        Check.notNull(codecs, "codecs");
+        Check.notNull(types, "types");
+        for (final Class<?> type : types) {
+            Check.argCondition(codecs.typeId(type) < 0, "no codec registered for {0}", type.getName());
+        }
+        return new EventForwarderImpl(socket, source, codecs, types);
+    }
+
+    /**
+     * Returns the amount of events which were written to the socket.
+     *
+     * @return the amount of forwarded events
+     */
+    long forwardedCount();
+
+    /**
+     * Unregisters the listeners from the source event bus, writes the pending events and closes the connection.
+     */
+    @Override
+    void close();
+
+}
@@ -0,0 +1,168 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event.bridge;
+
+import org.aero.common.event.EventBus;
+import org.aero.common.event.EventListener;
+import org.aero.common.event.codec.EventCodecRegistry;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+final class EventForwarderImpl implements EventForwarder {
+
+    private static final int MAX_BATCH_SIZE = 64;
+
+    private final EventBus source;
+    private final EventCodecRegistry codecs;
+    private final SocketChannel channel;
+    private final List<EventListener<?>> listeners;
+    private final Queue<ByteBuffer> pending;
+    private final LongAdder forwarded;
+    private final Thread writer;
+
+    private volatile boolean running = true;
+    private volatile boolean idle = false;
+
+    EventForwarderImpl(
+        final Path socket,
+        final EventBus source,
+        final EventCodecRegistry codecs,
+        final Collection<Class<?>> types
+    ) throws IOException {
+        this.source = source;
+        this.codecs = codecs;
+        this.channel = SocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            this.channel.connect(UnixDomainSocketAddress.of(socket));
+        } catch (final IOException | RuntimeException exception) {
+            this.channel.close();
+            throw exception;
+        }
+        this.listeners = new ArrayList<>(types.size());
+        this.pending = new ConcurrentLinkedQueue<>();
+        this.forwarded = new LongAdder();
+
+        this.writer = new Thread(this::writeLoop, "event-forwarder-" + socket.getFileName());
+        this.writer.setDaemon(true);
+        this.writer.start();
+
+        for (final Class<?> type : types) {
+            final EventListener<?> listener = EventListener.of(type, this::forward);
+            this.listeners.add(listener);
+            source.register(listener);
+        }
+    }
+
+    @Override
+    public long forwardedCount() {
+        return this.forwarded.sum();
+    }
+
+    @Override
+    public void close() {
+        if (!this.running) {
+            return;
+        }
+
+        this.source.unregisterIf(this.listeners::contains);
+        this.running = false;
+        LockSupport.unpark(this.writer);
+
+        try {
+            this.writer.join();
+            this.channel.close();
+        } catch (final InterruptedException exception) {
+            Thread.currentThread().interrupt();
+        } catch (final IOException exception) {
+            exception.printStackTrace();
+        }
+    }
+
+    private void forward(@NotNull final Object event) {
+        // events received from another process on the same event bus are not sent back
+        if (!this.running || EventReceiverImpl.isReceiving(this.source)) {
+            return;
+        }
+
+        final ByteBuffer frame = EventFrames.encode(this.codecs, event);
+
+        if (frame == null) {
+            return;
+        }
+
+        this.pending.add(frame);
+        if (this.idle) {
+            LockSupport.unpark(this.writer);
+        }
+    }
+
+    private void writeLoop() {
+        final ByteBuffer[] batch = new ByteBuffer[MAX_BATCH_SIZE];
+
+        while (this.running || !this.pending.isEmpty()) {
+            int size = 0;
+            ByteBuffer frame;
+
+            while (size < MAX_BATCH_SIZE && (frame = this.pending.poll()) != null) {
+                batch[size++] = frame;
+            }
+
+            if (size == 0) {
+                this.sleep();
+                continue;
+            }
+
+            try {
+                // a gathering write may be partial, the last frame is the last one to be drained
+                while (batch[size - 1].hasRemaining()) {
+                    this.channel.write(batch, 0, size);
+                }
+            } catch (final IOException exception) {
+                exception.printStackTrace();
+                this.running = false;
+                this.pending.clear();
+                return;
+            }
+
+            this.forwarded.add(size);
+            Arrays.fill(batch, 0, size, null);
+        }
+    }
+
+    private void sleep() {
+        // the flag is set before the queue is checked again, so a forward either sees it or is seen here
+        this.idle = true;
+        if (this.pending.isEmpty() && this.running) {
+            LockSupport.park(this);
+        }
+        this.idle = false;
+    }
+}
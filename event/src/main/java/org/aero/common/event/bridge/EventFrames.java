@@ -0,0 +1,104 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event.bridge;
+
+import org.aero.common.event.codec.EventCodec;
+import org.aero.common.event.codec.EventCodecRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes and decodes the frames which are sent over a bridge. A frame consists of the payload length as int, the
+ * type id as unsigned short and the payload written by the {@link EventCodec} of the event.
+ */
+final class EventFrames {
+
+    static final int HEADER_SIZE = Integer.BYTES + Short.BYTES;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private EventFrames() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Encodes an event into a new frame, which is ready to be written.
+     *
+     * @param codecs the registry to look up the codec of the event
+     * @param event  the event to encode
+     * @return the encoded frame, or null if no codec is registered for the event
+     */
+    static @Nullable ByteBuffer encode(@NotNull final EventCodecRegistry codecs, @NotNull final Object event) {
+        final int typeId = codecs.typeId(event.getClass());
+
+        if (typeId < 0) {
+            return null;
+        }
+
+        @SuppressWarnings("unchecked")
+        final EventCodec<Object> codec = (EventCodec<Object>) codecs.codec(typeId);
+        int capacity = INITIAL_CAPACITY;
+
+        while (true) {
+            final ByteBuffer frame = ByteBuffer.allocate(capacity);
+
+            try {
+                frame.position(HEADER_SIZE);
+                codec.encode(event, frame);
+            } catch (final BufferOverflowException exception) {
+                capacity <<= 1;
+                continue;
+            }
+
+            frame.putInt(0, frame.position() - HEADER_SIZE);
+            frame.putShort(Integer.BYTES, (short) typeId);
+            return frame.flip();
+        }
+    }
+
+    /**
+     * Returns the payload length of the frame starting at the given index.
+     *
+     * @param buffer the buffer containing the frame
+     * @param index  the index of the frame
+     * @return the payload length
+     */
+    static int payloadLength(@NotNull final ByteBuffer buffer, final int index) {
+        return buffer.getInt(index);
+    }
+
+    /**
+     * Decodes the payload of the frame starting at the given index. The buffer must contain the whole frame.
+     *
+     * @param codecs the registry to look up the codec of the frame
+     * @param buffer the buffer containing the frame
+     * @param index  the index of the frame
+     * @return the decoded event, or null if no codec is registered for the type id of the frame
+     */
+    static @Nullable Object decode(@NotNull final EventCodecRegistry codecs, @NotNull final ByteBuffer buffer, final int index) {
+        final EventCodec<?> codec = codecs.codec(buffer.getShort(index + Integer.BYTES) & EventCodecRegistry.MAX_TYPE_ID);
+
+        if (codec == null) {
+            return null;
+        }
+
+        return codec.decode(buffer.slice(index + HEADER_SIZE, payloadLength(buffer, index)));
+    }
+}
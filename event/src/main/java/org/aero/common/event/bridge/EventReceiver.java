@@ -0,0 +1,66 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event.bridge;
+
+import org.aero.common.core.validate.Check;
+import org.aero.common.event.EventBus;
+import org.aero.common.event.codec.EventCodecRegistry;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Represents the receiving side of an event bridge. A receiver is bound to a Unix domain socket file, accepts
+ * connections from {@link EventForwarder}s and calls every received event on its target {@link EventBus}.
+ */
+public sealed interface EventReceiver extends AutoCloseable permits EventReceiverImpl {
+
+    /**
+     * Binds a new receiver to the given socket file, which must not exist yet.
+     *
+     * @param socket the socket file to bind to
+     * @param target the event bus to call the received events on
+     * @param codecs the codecs of the received events
+     * @return the bound receiver
+     * @throws IOException if the socket could not be bound
+     */
+    static @NotNull EventReceiver bind(
+        @NotNull final Path socket,
+        @NotNull final EventBus target,
+        @NotNull final EventCodecRegistry codecs
+    ) throws IOException {
+        Check.notNull(socket, "socket");
+        Check.notNull(target, "target");
+        Check.notNull(codecs, "codecs");
+        return new EventReceiverImpl(socket, target, codecs);
+    }
+
+    /**
+     * Returns the amount of events which were received and called on the target event bus.
+     *
+     * @return the amount of received events
+     */
+    long receivedCount();
+
+    /**
+     * Closes all connections and deletes the socket file.
+     */
+    @Override
+    void close();
+
+}
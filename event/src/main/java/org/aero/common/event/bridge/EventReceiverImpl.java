@@ -0,0 +1,182 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event.bridge;
+
+import org.aero.common.event.EventBus;
+import org.aero.common.event.codec.EventCodecRegistry;
+
+import java.io.IOException;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ClosedChannelException;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+final class EventReceiverImpl implements EventReceiver {
+
+    private static final int INITIAL_BUFFER_SIZE = 64 * 1024;
+    private static final ThreadLocal<EventBus> RECEIVING = new ThreadLocal<>();
+
+    private final Path socket;
+    private final EventBus target;
+    private final EventCodecRegistry codecs;
+    private final ServerSocketChannel server;
+    private final Set<SocketChannel> connections;
+    private final LongAdder received;
+
+    private volatile boolean running = true;
+
+    EventReceiverImpl(final Path socket, final EventBus target, final EventCodecRegistry codecs) throws IOException {
+        this.socket = socket;
+        this.target = target;
+        this.codecs = codecs;
+        this.server = ServerSocketChannel.open(StandardProtocolFamily.UNIX);
+        try {
+            this.server.bind(UnixDomainSocketAddress.of(socket));
+        } catch (final IOException | RuntimeException exception) {
+            this.server.close();
+            throw exception;
+        }
+        this.connections = ConcurrentHashMap.newKeySet();
+        this.received = new LongAdder();
+
+        final Thread acceptor = new Thread(this::acceptLoop, "event-receiver-" + socket.getFileName());
+        acceptor.setDaemon(true);
+        acceptor.start();
+    }
+
+    /**
+     * Returns whether the current thread is calling a received event on the given event bus. Events called on another
+     * event bus by a listener of a received event are not affected.
+     *
+     * @param bus the event bus to check
+     * @return true if a received event is called on the given event bus
+     */
+    static boolean isReceiving(final EventBus bus) {
+        return RECEIVING.get() == bus;
+    }
+
+    @Override
+    public long receivedCount() {
+        return this.received.sum();
+    }
+
+    @Override
+    public void close() {
+        if (!this.running) {
+            return;
+        }
+        this.running = false;
+
+        try {
+            this.server.close();
+            for (final SocketChannel connection : this.connections) {
+                connection.close();
+            }
+            Files.deleteIfExists(this.socket);
+        } catch (final IOException exception) {
+            exception.printStackTrace();
+        }
+    }
+
+    private void acceptLoop() {
+        while (this.running) {
+            final SocketChannel connection;
+
+            try {
+                connection = this.server.accept();
+            } catch (final ClosedChannelException exception) {
+                return;
+            } catch (final IOException exception) {
+                exception.printStackTrace();
+                return;
+            }
+
+            this.connections.add(connection);
+            final Thread reader = new Thread(() -> this.readLoop(connection), Thread.currentThread().getName() + "-reader");
+            reader.setDaemon(true);
+            reader.start();
+        }
+    }
+
+    private void readLoop(final SocketChannel connection) {
+        ByteBuffer buffer = ByteBuffer.allocateDirect(INITIAL_BUFFER_SIZE);
+
+        try (connection) {
+            while (this.running && connection.read(buffer) >= 0) {
+                buffer.flip();
+                this.dispatchFrames(buffer);
+                buffer.compact();
+
+                // grow the buffer if a single frame does not fit into it
+                if (!buffer.hasRemaining()) {
+                    final ByteBuffer grown = ByteBuffer.allocateDirect(buffer.capacity() << 1);
+                    buffer.flip();
+                    grown.put(buffer);
+                    buffer = grown;
+                }
+            }
+        } catch (final ClosedChannelException exception) {
+            // the receiver was closed
+        } catch (final IOException exception) {
+            exception.printStackTrace();
+        } finally {
+            this.connections.remove(connection);
+        }
+    }
+
+    private void dispatchFrames(final ByteBuffer buffer) {
+        while (buffer.remaining() >= EventFrames.HEADER_SIZE) {
+            final int index = buffer.position();
+            final int frameSize = EventFrames.HEADER_SIZE + EventFrames.payloadLength(buffer, index);
+
+            if (buffer.remaining() < frameSize) {
+                return;
+            }
+
+            buffer.position(index + frameSize);
+
+            try {
+                final Object event = EventFrames.decode(this.codecs, buffer, index);
+
+                if (event != null) {
+                    this.received.increment();
+                    this.callReceived(event);
+                }
+            } catch (final RuntimeException exception) {
+                exception.printStackTrace();
+            }
+        }
+    }
+
+    private void callReceived(final Object event) {
+        final EventBus previous = RECEIVING.get();
+        RECEIVING.set(this.target);
+
+        try {
+            this.target.call(event);
+        } finally {
+            RECEIVING.set(previous);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event.bridge;
+
+import org.aero.common.core.validate.Check;
+import org.aero.common.event.EventBus;
+import org.aero.common.event.codec.EventCodecRegistry;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Collection;
+
+/**
+ * Represents a ring buffer of encoded events in a memory-mapped file, which is shared by processes on the same host.
+ * The file is usually placed under {@code /dev/shm}, so it never touches a disk.
+ *
+ * <p>Any number of producers can {@link #offer(Object)} events or {@link #forward(EventBus, Collection)} them from an
+ * event bus, a single consumer {@link #poll(EventBus, int)}s them into its local event bus. Records are published with
+ * release and read with acquire semantics, so neither side needs a system call per event.
+ */
+public sealed interface EventRing extends AutoCloseable permits EventRingImpl {
+
+    /**
+     * Opens the ring in the given file. The file is created if it does not exist yet, otherwise its capacity must
+     * match the given capacity.
+     *
+     * @param file     the file to map
+     * @param capacity the capacity of the ring in bytes, a power of two
+     * @param codecs   the codecs of the events in the ring
+     * @return the opened ring
+     * @throws IOException if the file could not be mapped
+     */
+    static @NotNull EventRing open(
+        @NotNull final Path file,
+        final int capacity,
+        @NotNull final EventCodecRegistry codecs
+    ) throws IOException {
+        Check.notNull(file, "file");
+        Check.notNull(codecs, "codecs");
+        Check.argCondition(capacity < 64 || Integer.bitCount(capacity) != 1, "capacity must be a power of two of at least 64");
+        return new EventRingImpl(file, capacity, codecs);
+    }
+
+    /**
+     * Writes an event into the ring. A record never wraps around the end of the ring, if it does not fit into the rest
+     * of the ring, the rest is skipped and the event is written at the start of the ring once the consumer has passed
+     * the skipped space.
+     *
+     * @param event the event to write
+     * @return true if the event was written, false if the ring is full or no codec is registered for it
+     */
+    boolean offer(@NotNull Object event);
+
+    /**
+     * Forwards the given event types from the event bus into the ring until this ring is closed. Events which do not
+     * fit into the ring are dropped and counted.
+     *
+     * @param source the event bus to forward events from
+     * @param types  the event types to forward, each needs a codec registered for it
+     * @see #droppedCount()
+     */
+    void forward(@NotNull EventBus source, @NotNull Collection<Class<?>> types);
+
+    /**
+     * Reads the committed events from the ring and calls them on the event bus. Only a single thread of all processes
+     * may poll a ring.
+     *
+     * @param target the event bus to call the events on
+     * @param limit  the maximum amount of events to read
+     * @return the amount of read events
+     */
+    int poll(@NotNull EventBus target, int limit);
+
+    /**
+     * Returns the amount of forwarded events which were dropped because the ring was full.
+     *
+     * @return the amount of dropped events
+     */
+    long droppedCount();
+
+    /**
+     * Stops forwarding events and closes the file. The mapping stays valid until it is garbage collected.
+     */
+    @Override
+    void close();
+
+}
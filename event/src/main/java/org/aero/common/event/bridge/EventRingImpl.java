@@ -0,0 +1,253 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event.bridge;
+
+import org.aero.common.core.validate.Check;
+import org.aero.common.event.EventBus;
+import org.aero.common.event.EventListener;
+import org.aero.common.event.codec.EventCodec;
+import org.aero.common.event.codec.EventCodecRegistry;
+import org.jetbrains.annotations.NotNull;
+
+import java.io.IOException;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * The file starts with a header of three cache lines: the magic and capacity, the producer tail and the consumer head.
+ * Every record is aligned to eight bytes and starts with a header word, which is zero until the record is committed.
+ * A committed header holds the payload length, the type id and the flags of the record.
+ */
+final class EventRingImpl implements EventRing {
+
+    private static final VarHandle LONGS = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    private static final int MAGIC = 0x45565452;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int CAPACITY_OFFSET = 4;
+    private static final int TAIL_OFFSET = 64;
+    private static final int HEAD_OFFSET = 128;
+    private static final int DATA_OFFSET = 192;
+
+    private static final int RECORD_HEADER_SIZE = Long.BYTES;
+    private static final long COMMITTED = 1;
+    private static final long PADDING = 2;
+
+    private static final int INITIAL_SCRATCH_SIZE = 256;
+    private static final ThreadLocal<ByteBuffer> SCRATCH = ThreadLocal.withInitial(
+        () -> ByteBuffer.allocateDirect(INITIAL_SCRATCH_SIZE)
+    );
+
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+    private final EventCodecRegistry codecs;
+    private final int capacity;
+    private final int mask;
+    private final List<Runnable> forwardings;
+    private final LongAdder dropped;
+
+    EventRingImpl(final Path file, final int capacity, final EventCodecRegistry codecs) throws IOException {
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        this.buffer = this.channel.map(FileChannel.MapMode.READ_WRITE, 0, DATA_OFFSET + capacity);
+        this.buffer.order(ByteOrder.nativeOrder());
+        this.codecs = codecs;
+        this.capacity = capacity;
+        this.mask = capacity - 1;
+        this.forwardings = new ArrayList<>();
+        this.dropped = new LongAdder();
+
+        // a new file is zero filled, so the first process to open it writes the header
+        if (this.buffer.getInt(MAGIC_OFFSET) == 0) {
+            this.buffer.putInt(CAPACITY_OFFSET, capacity);
+            this.buffer.putInt(MAGIC_OFFSET, MAGIC);
+        }
+
+        Check.stateCondition(this.buffer.getInt(MAGIC_OFFSET) != MAGIC, "{0} is not an event ring", file);
+        Check.stateCondition(this.buffer.getInt(CAPACITY_OFFSET) != capacity, "{0} has a different capacity", file);
+    }
+
+    private static int align(final int size) {
+        return (size + Long.BYTES - 1) & -Long.BYTES;
+    }
+
+    @Override
+    public boolean offer(@NotNull final Object event) {
+        Check.notNull(event, "event");
+        final int typeId = this.codecs.typeId(event.getClass());
+
+        if (typeId < 0) {
+            return false;
+        }
+
+        final ByteBuffer payload = this.encode(typeId, event);
+        final int recordSize = align(RECORD_HEADER_SIZE + payload.remaining());
+
+        if (recordSize > this.capacity) {
+            return false;
+        }
+
+        long tail;
+        int index;
+
+        while (true) {
+            tail = (long) LONGS.getAcquire(this.buffer, TAIL_OFFSET);
+            index = (int) (tail & this.mask);
+
+            // a record never wraps, the rest of the ring is published as a padding record on its own and the claim is
+            // retried at the start of the ring, so a record of up to the full capacity fits once the padding is polled
+            final int untilEnd = this.capacity - index;
+            final int claimed = Math.min(recordSize, untilEnd);
+
+            if (tail + claimed - (long) LONGS.getAcquire(this.buffer, HEAD_OFFSET) > this.capacity) {
+                return false;
+            }
+
+            if (!LONGS.compareAndSet(this.buffer, TAIL_OFFSET, tail, tail + claimed)) {
+                continue;
+            }
+
+            if (claimed == recordSize) {
+                break;
+            }
+
+            final long padding = (long) (untilEnd - RECORD_HEADER_SIZE) << 32 | PADDING | COMMITTED;
+            LONGS.setRelease(this.buffer, DATA_OFFSET + index, padding);
+        }
+
+        final long header = (long) payload.remaining() << 32 | (long) typeId << 16 | COMMITTED;
+        this.buffer.put(DATA_OFFSET + index + RECORD_HEADER_SIZE, payload, 0, payload.remaining());
+        LONGS.setRelease(this.buffer, DATA_OFFSET + index, header);
+        return true;
+    }
+
+    @Override
+    public void forward(@NotNull final EventBus source, @NotNull final Collection<Class<?>> types) {
+        Check.notNull(source, "source");
+        Check.notNull(types, "types");
+        final List<EventListener<?>> listeners = new ArrayList<>(types.size());
+
+        for (final Class<?> type : types) {
+            Check.argCondition(this.codecs.typeId(type) < 0, "no codec registered for {0}", type.getName());
+            listeners.add(EventListener.of(type, this::forward));
+        }
+
+        synchronized (this.forwardings) {
+            listeners.forEach(source::register);
+            this.forwardings.add(() -> source.unregisterIf(listeners::contains));
+        }
+    }
+
+    @Override
+    public int poll(@NotNull final EventBus target, final int limit) {
+        Check.notNull(target, "target");
+        long position = (long) LONGS.getAcquire(this.buffer, HEAD_OFFSET);
+        int polled = 0;
+
+        while (polled < limit) {
+            final int index = (int) (position & this.mask);
+            final long header = (long) LONGS.getAcquire(this.buffer, DATA_OFFSET + index);
+
+            if (header == 0) {
+                break;
+            }
+
+            final int length = (int) (header >>> 32);
+            final int recordSize = align(RECORD_HEADER_SIZE + length);
+
+            if ((header & PADDING) == 0) {
+                this.dispatch(target, (int) (header >>> 16) & EventCodecRegistry.MAX_TYPE_ID, index, length);
+                polled++;
+            }
+
+            // records are zeroed before they are released, so a header is zero until it is committed again
+            for (int offset = 0; offset < recordSize; offset += Long.BYTES) {
+                this.buffer.putLong(DATA_OFFSET + index + offset, 0);
+            }
+
+            position += recordSize;
+            LONGS.setRelease(this.buffer, HEAD_OFFSET, position);
+        }
+
+        return polled;
+    }
+
+    @Override
+    public long droppedCount() {
+        return this.dropped.sum();
+    }
+
+    @Override
+    public void close() {
+        synchronized (this.forwardings) {
+            this.forwardings.forEach(Runnable::run);
+            this.forwardings.clear();
+        }
+
+        try {
+            this.channel.close();
+        } catch (final IOException exception) {
+            exception.printStackTrace();
+        }
+    }
+
+    private void forward(@NotNull final Object event) {
+        if (!this.offer(event)) {
+            this.dropped.increment();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private ByteBuffer encode(final int typeId, final Object event) {
+        final EventCodec<Object> codec = (EventCodec<Object>) this.codecs.codec(typeId);
+        ByteBuffer scratch = SCRATCH.get();
+
+        while (true) {
+            try {
+                codec.encode(event, scratch.clear());
+                return scratch.flip();
+            } catch (final BufferOverflowException exception) {
+                scratch = ByteBuffer.allocateDirect(scratch.capacity() << 1);
+                SCRATCH.set(scratch);
+            }
+        }
+    }
+
+    private void dispatch(final EventBus target, final int typeId, final int index, final int length) {
+        final EventCodec<?> codec = this.codecs.codec(typeId);
+
+        if (codec == null) {
+            return;
+        }
+
+        try {
+            target.call(codec.decode(this.buffer.slice(DATA_OFFSET + index + RECORD_HEADER_SIZE, length)));
+        } catch (final RuntimeException exception) {
+            exception.printStackTrace();
+        }
+    }
+}
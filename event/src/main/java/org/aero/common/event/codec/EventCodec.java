@@ -0,0 +1,74 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event.codec;
+
+import org.aero.common.core.validate.Check;
+import org.jetbrains.annotations.NotNull;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Represents a binary codec for one event class. Events are encoded directly into and decoded directly from a
+ * {@link ByteBuffer}, without any intermediate copies.
+ *
+ * @param <T> the type of the event
+ */
+public interface EventCodec<T> {
+
+    /**
+     * Returns the codec for a record event class, which is generated from the components of the record. The codec is
+     * created once per record class and cached afterwards.
+     *
+     * <p>Supported components are primitives and their wrappers, strings, enums, uuids, byte arrays and other records
+     * which only consist of supported components.
+     *
+     * @param type the record event class
+     * @param <T>  the record event type
+     * @return the codec for the record event class
+     * @throws IllegalArgumentException if a component of the record is not supported
+     */
+    static <T extends Record> @NotNull EventCodec<T> ofRecord(@NotNull final Class<T> type) {
+        Check.notNull(type, "type");
+        return RecordEventCodec.of(type);
+    }
+
+    /**
+     * Returns the class of the events handled by this codec.
+     *
+     * @return the event class
+     */
+    @NotNull Class<T> type();
+
+    /**
+     * Encodes the event into the buffer, starting at its current position. The position is advanced past the written
+     * bytes. If the remaining space is not sufficient, a {@link java.nio.BufferOverflowException} is thrown and the
+     * caller retries with a larger buffer.
+     *
+     * @param event  the event to encode
+     * @param buffer the buffer to write to
+     */
+    void encode(@NotNull T event, @NotNull ByteBuffer buffer);
+
+    /**
+     * Decodes an event from the buffer, starting at its current position and ending at its limit.
+     *
+     * @param buffer the buffer to read from
+     * @return the decoded event
+     */
+    @NotNull T decode(@NotNull ByteBuffer buffer);
+
+}
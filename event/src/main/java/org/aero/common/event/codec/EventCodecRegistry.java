@@ -0,0 +1,77 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event.codec;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Represents a registry of {@link EventCodec}s. Every codec is registered with a compact type id, which identifies
+ * the event class on the wire and must be the same on every side of a connection.
+ */
+public sealed interface EventCodecRegistry permits EventCodecRegistryImpl {
+
+    /**
+     * The highest type id that can be registered.
+     */
+    int MAX_TYPE_ID = 0xFFFF;
+
+    /**
+     * Creates a new, empty codec registry.
+     *
+     * @return the created codec registry
+     */
+    static @NotNull EventCodecRegistry create() {
+        return new EventCodecRegistryImpl();
+    }
+
+    /**
+     * Registers a codec with the given type id.
+     *
+     * @param typeId the type id, between 0 and {@link #MAX_TYPE_ID}
+     * @param codec  the codec to register
+     * @param <T>    the event type
+     * @throws IllegalArgumentException if the type id or the event class is already registered
+     */
+    <T> void register(int typeId, @NotNull EventCodec<T> codec);
+
+    /**
+     * Returns the codec registered for the given event class.
+     *
+     * @param type the event class
+     * @param <T>  the event type
+     * @return the codec, or null if there is none
+     */
+    <T> @Nullable EventCodec<T> codec(@NotNull Class<T> type);
+
+    /**
+     * Returns the codec registered with the given type id.
+     *
+     * @param typeId the type id
+     * @return the codec, or null if there is none
+     */
+    @Nullable EventCodec<?> codec(int typeId);
+
+    /**
+     * Returns the type id of the given event class.
+     *
+     * @param type the event class
+     * @return the type id, or -1 if the event class is not registered
+     */
+    int typeId(@NotNull Class<?> type);
+
+}
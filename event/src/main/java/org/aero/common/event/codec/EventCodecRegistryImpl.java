@@ -0,0 +1,90 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event.codec;
+
+import org.aero.common.core.validate.Check;
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+final class EventCodecRegistryImpl implements EventCodecRegistry {
+
+    private final Map<Class<?>, Registration> byType;
+    private volatile EventCodec<?>[] byId;
+
+    EventCodecRegistryImpl() {
+        this.byType = new ConcurrentHashMap<>();
+        this.byId = new EventCodec<?>[0];
+    }
+
+    @Override
+    public synchronized <T> void register(final int typeId, @NotNull final EventCodec<T> codec) {
+        Check.notNull(codec, "codec");
+        Check.argCondition(typeId < 0 || typeId > MAX_TYPE_ID, "typeId must be between 0 and {0}", MAX_TYPE_ID);
+        Check.argCondition(this.codec(typeId) != null, "typeId {0} is already registered", typeId);
+        Check.argCondition(this.byType.containsKey(codec.type()), "type {0} is already registered", codec.type().getName());
+
+        // the id lookup is copied on write, registrations are rare compared to lookups
+        final EventCodec<?>[] byId = Arrays.copyOf(this.byId, Math.max(this.byId.length, typeId + 1));
+        byId[typeId] = codec;
+        this.byType.put(codec.type(), new Registration(typeId, codec));
+        this.byId = byId;
+    }
+
+    @SuppressWarnings("unchecked")
+    @Override
+    public <T> @Nullable EventCodec<T> codec(@NotNull final Class<T> type) {
+        Check.notNull(type, "type");
+        final Registration registration = this.byType.get(type);
+
+        if (registration == null) {
+            return null;
+        }
+
+        return (EventCodec<T>) registration.codec();
+    }
+
+    @Override
+    public @Nullable EventCodec<?> codec(final int typeId) {
+        final EventCodec<?>[] byId = this.byId;
+
+        if (typeId < 0 || typeId >= byId.length) {
+            return null;
+        }
+
+        return byId[typeId];
+    }
+
+    @Override
+    public int typeId(@NotNull final Class<?> type) {
+        Check.notNull(type, "type");
+        final Registration registration = this.byType.get(type);
+
+        if (registration == null) {
+            return -1;
+        }
+
+        return registration.typeId();
+    }
+
+    private record Registration(int typeId, EventCodec<?> codec) {
+
+    }
+}
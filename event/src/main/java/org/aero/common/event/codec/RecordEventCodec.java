@@ -0,0 +1,319 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event.codec;
+
+import org.jetbrains.annotations.NotNull;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.RecordComponent;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Represents a codec for record events, which is generated from the components of the record. The accessors and the
+ * canonical constructor are resolved once into cached {@link MethodHandle}s.
+ *
+ * <p>Supported components are primitives and their wrappers, strings, enums, uuids, byte arrays and other records which
+ * only consist of supported components, including records referencing themselves directly or indirectly. Strings are
+ * encoded as UTF-8 directly into the buffer.
+ *
+ * @param <T> the type of the record
+ */
+final class RecordEventCodec<T extends Record> implements EventCodec<T> {
+
+    private static final ClassValue<RecordEventCodec<?>> CODECS = new ClassValue<>() {
+        @Override
+        protected RecordEventCodec<?> computeValue(final Class<?> type) {
+            final Set<Class<?>> resolving = RESOLVING.get();
+            resolving.add(type);
+
+            try {
+                return new RecordEventCodec<>(type.asSubclass(Record.class));
+            } finally {
+                resolving.remove(type);
+            }
+        }
+    };
+
+    // the records whose codecs are generated on the current thread, to detect self-referential records
+    private static final ThreadLocal<Set<Class<?>>> RESOLVING = ThreadLocal.withInitial(HashSet::new);
+
+    private static final ThreadLocal<CharsetEncoder> ENCODER = ThreadLocal.withInitial(() -> StandardCharsets.UTF_8
+        .newEncoder()
+        .onMalformedInput(CodingErrorAction.REPLACE)
+        .onUnmappableCharacter(CodingErrorAction.REPLACE));
+
+    private static final int NULL = -1;
+
+    private final Class<T> type;
+    private final Component[] components;
+    private final MethodHandle constructor;
+
+    private RecordEventCodec(final Class<T> type) {
+        final RecordComponent[] recordComponents = type.getRecordComponents();
+        final Class<?>[] componentTypes = new Class<?>[recordComponents.length];
+        final MethodHandles.Lookup lookup = MethodHandles.lookup();
+
+        this.type = type;
+        this.components = new Component[recordComponents.length];
+
+        try {
+            for (int i = 0; i < recordComponents.length; i++) {
+                final Method accessor = recordComponents[i].getAccessor();
+                accessor.setAccessible(true);
+                componentTypes[i] = recordComponents[i].getType();
+                this.components[i] = component(componentTypes[i], lookup.unreflect(accessor));
+            }
+
+            final var constructor = type.getDeclaredConstructor(componentTypes);
+            constructor.setAccessible(true);
+            this.constructor = lookup
+                .unreflectConstructor(constructor)
+                .asType(MethodType.methodType(Object.class, componentTypes))
+                .asSpreader(Object[].class, componentTypes.length);
+        } catch (final ReflectiveOperationException exception) {
+            throw new IllegalArgumentException("cannot access the record " + type.getName(), exception);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T extends Record> @NotNull RecordEventCodec<T> of(@NotNull final Class<T> type) {
+        return (RecordEventCodec<T>) CODECS.get(type);
+    }
+
+    private static Component component(final Class<?> type, final MethodHandle accessor) {
+        if (type.isPrimitive()) {
+            return primitive(type, accessor.asType(MethodType.methodType(type, Object.class)));
+        }
+
+        final MethodHandle getter = accessor.asType(MethodType.methodType(Object.class, Object.class));
+
+        if (type == String.class) {
+            return new Component(
+                (record, buffer) -> {
+                    final Object value = getter.invokeExact(record);
+                    writeString(buffer, (String) value);
+                },
+                RecordEventCodec::readString
+            );
+        }
+
+        final Component reference = reference(type);
+
+        // reference values are prefixed with a presence flag, so they can be null
+        return new Component(
+            (record, buffer) -> {
+                final Object value = getter.invokeExact(record);
+                buffer.put((byte) (value == null ? 0 : 1));
+                if (value != null) {
+                    reference.encoder().encode(value, buffer);
+                }
+            },
+            buffer -> buffer.get() == 0 ? null : reference.decoder().decode(buffer)
+        );
+    }
+
+    private static Component reference(final Class<?> type) {
+        if (type.isEnum()) {
+            final Object[] constants = type.getEnumConstants();
+            return new Component(
+                (value, buffer) -> buffer.putInt(((Enum<?>) value).ordinal()),
+                buffer -> constants[buffer.getInt()]
+            );
+        } else if (type == UUID.class) {
+            return new Component(
+                (value, buffer) -> {
+                    final UUID uuid = (UUID) value;
+                    buffer.putLong(uuid.getMostSignificantBits()).putLong(uuid.getLeastSignificantBits());
+                },
+                buffer -> new UUID(buffer.getLong(), buffer.getLong())
+            );
+        } else if (type == byte[].class) {
+            return new Component(
+                (value, buffer) -> buffer.putInt(((byte[]) value).length).put((byte[]) value),
+                buffer -> {
+                    final byte[] bytes = new byte[buffer.getInt()];
+                    buffer.get(bytes);
+                    return bytes;
+                }
+            );
+        } else if (type.isRecord()) {
+            if (RESOLVING.get().contains(type)) {
+                // the codec of a record referencing itself is still being generated, so it is looked up on use
+                return new Component(
+                    (value, buffer) -> CODECS.get(type).encodeRecord(value, buffer),
+                    buffer -> CODECS.get(type).decode(buffer)
+                );
+            }
+
+            final RecordEventCodec<?> codec = CODECS.get(type);
+            return new Component(codec::encodeRecord, codec::decode);
+        }
+
+        final Class<?> primitive = unwrap(type);
+
+        if (primitive == null) {
+            throw new IllegalArgumentException("unsupported record component type " + type.getName());
+        }
+
+        // the value itself is the wrapper, which is unboxed by the identity handle
+        return primitive(primitive, MethodHandles.identity(Object.class).asType(MethodType.methodType(primitive, Object.class)));
+    }
+
+    private static Component primitive(final Class<?> type, final MethodHandle getter) {
+        if (type == int.class) {
+            return new Component((record, buffer) -> buffer.putInt((int) getter.invokeExact(record)), ByteBuffer::getInt);
+        } else if (type == long.class) {
+            return new Component((record, buffer) -> buffer.putLong((long) getter.invokeExact(record)), ByteBuffer::getLong);
+        } else if (type == double.class) {
+            return new Component((record, buffer) -> buffer.putDouble((double) getter.invokeExact(record)), ByteBuffer::getDouble);
+        } else if (type == float.class) {
+            return new Component((record, buffer) -> buffer.putFloat((float) getter.invokeExact(record)), ByteBuffer::getFloat);
+        } else if (type == short.class) {
+            return new Component((record, buffer) -> buffer.putShort((short) getter.invokeExact(record)), ByteBuffer::getShort);
+        } else if (type == char.class) {
+            return new Component((record, buffer) -> buffer.putChar((char) getter.invokeExact(record)), ByteBuffer::getChar);
+        } else if (type == byte.class) {
+            return new Component((record, buffer) -> buffer.put((byte) getter.invokeExact(record)), ByteBuffer::get);
+        }
+
+        return new Component(
+            (record, buffer) -> buffer.put((byte) ((boolean) getter.invokeExact(record) ? 1 : 0)),
+            buffer -> buffer.get() != 0
+        );
+    }
+
+    private static Class<?> unwrap(final Class<?> type) {
+        if (type == Integer.class) {
+            return int.class;
+        } else if (type == Long.class) {
+            return long.class;
+        } else if (type == Double.class) {
+            return double.class;
+        } else if (type == Float.class) {
+            return float.class;
+        } else if (type == Short.class) {
+            return short.class;
+        } else if (type == Character.class) {
+            return char.class;
+        } else if (type == Byte.class) {
+            return byte.class;
+        } else if (type == Boolean.class) {
+            return boolean.class;
+        }
+        return null;
+    }
+
+    private static void writeString(final ByteBuffer buffer, final String value) {
+        if (value == null) {
+            buffer.putInt(NULL);
+            return;
+        }
+
+        final int start = buffer.position();
+        buffer.position(start + Integer.BYTES);
+
+        final CharsetEncoder encoder = ENCODER.get().reset();
+        final CoderResult result = encoder.encode(CharBuffer.wrap(value), buffer, true);
+
+        if (result.isOverflow() || encoder.flush(buffer).isOverflow()) {
+            throw new BufferOverflowException();
+        }
+
+        buffer.putInt(start, buffer.position() - start - Integer.BYTES);
+    }
+
+    private static String readString(final ByteBuffer buffer) {
+        final int length = buffer.getInt();
+
+        if (length == NULL) {
+            return null;
+        }
+
+        final ByteBuffer bytes = buffer.slice(buffer.position(), length);
+        buffer.position(buffer.position() + length);
+        return StandardCharsets.UTF_8.decode(bytes).toString();
+    }
+
+    @Override
+    public @NotNull Class<T> type() {
+        return this.type;
+    }
+
+    @Override
+    public void encode(@NotNull final T event, @NotNull final ByteBuffer buffer) {
+        this.encodeRecord(event, buffer);
+    }
+
+    @Override
+    public @NotNull T decode(@NotNull final ByteBuffer buffer) {
+        final Object[] arguments = new Object[this.components.length];
+
+        for (int i = 0; i < arguments.length; i++) {
+            arguments[i] = this.components[i].decoder().decode(buffer);
+        }
+
+        try {
+            return this.type.cast(this.constructor.invokeExact(arguments));
+        } catch (final RuntimeException | Error exception) {
+            throw exception;
+        } catch (final Throwable throwable) {
+            throw new IllegalStateException(throwable);
+        }
+    }
+
+    private void encodeRecord(final Object record, final ByteBuffer buffer) {
+        try {
+            for (final Component component : this.components) {
+                component.encoder().encode(record, buffer);
+            }
+        } catch (final RuntimeException | Error exception) {
+            throw exception;
+        } catch (final Throwable throwable) {
+            throw new IllegalStateException(throwable);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Encoder {
+
+        void encode(Object source, ByteBuffer buffer) throws Throwable;
+
+    }
+
+    @FunctionalInterface
+    private interface Decoder {
+
+        Object decode(ByteBuffer buffer);
+
+    }
+
+    private record Component(Encoder encoder, Decoder decoder) {
+
+    }
+}
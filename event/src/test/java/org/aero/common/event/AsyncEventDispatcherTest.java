@@ -0,0 +1,120 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AsyncEventDispatcherTest {
+
+    @Test
+    void testLanes() throws InterruptedException {
+        final EventBus eventBus = EventBus.create();
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch gate = new CountDownLatch(1);
+        final List<String> order = new CopyOnWriteArrayList<>();
+
+        eventBus.register(Gate.class, event -> {
+            started.countDown();
+            try {
+                gate.await();
+            } catch (final InterruptedException exception) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        eventBus.register(Telemetry.class, event -> order.add("telemetry"));
+        eventBus.register(Critical.class, event -> order.add(event.name()));
+
+        final AsyncEventDispatcher dispatcher = AsyncEventDispatcher.builder(eventBus)
+            .lanes(4, 1)
+            .lane(Critical.class, 0)
+            .build();
+
+        // block the dispatcher thread, so the following events are queued at the same time
+        dispatcher.enqueue(new Gate());
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        for (int i = 0; i < 10; i++) {
+            dispatcher.enqueue(new Telemetry());
+        }
+        dispatcher.enqueue(new Critical("first"));
+        dispatcher.enqueue(new Critical("second"));
+        assertEquals(12, dispatcher.pending());
+
+        gate.countDown();
+        dispatcher.close();
+
+        assertEquals(0, dispatcher.pending(), "Closing should dispatch all pending events");
+        assertEquals(12, order.size());
+        assertEquals(List.of("first", "second"), order.subList(0, 2), "The critical lane should be drained first");
+        assertThrows(IllegalStateException.class, () -> dispatcher.enqueue(new Telemetry()));
+    }
+
+    @Test
+    void testCloseWhileEnqueueing() throws InterruptedException {
+        final EventBus eventBus = EventBus.create();
+        final LongAdder dispatched = new LongAdder();
+        final LongAdder accepted = new LongAdder();
+        eventBus.register(Telemetry.class, event -> dispatched.increment());
+
+        final AsyncEventDispatcher dispatcher = AsyncEventDispatcher.builder(eventBus).build();
+        final Thread[] producers = new Thread[4];
+
+        for (int i = 0; i < producers.length; i++) {
+            producers[i] = new Thread(() -> {
+                try {
+                    while (true) {
+                        dispatcher.enqueue(new Telemetry());
+                        accepted.increment();
+                    }
+                } catch (final IllegalStateException exception) {
+                    // the dispatcher was closed
+                }
+            });
+            producers[i].start();
+        }
+
+        Thread.sleep(20);
+        dispatcher.close();
+        for (final Thread producer : producers) {
+            producer.join();
+        }
+
+        assertEquals(0, dispatcher.pending());
+        assertEquals(accepted.sum(), dispatched.sum(), "Every accepted event should be dispatched before close returns");
+    }
+
+    static class Gate {
+
+    }
+
+    static class Telemetry {
+
+    }
+
+    record Critical(String name) {
+
+    }
+}
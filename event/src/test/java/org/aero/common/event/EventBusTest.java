@@ -16,14 +16,37 @@
 
 package org.aero.common.event;
 
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
 import org.aero.common.core.validate.Check;
+import org.jetbrains.annotations.NotNull;
 import org.junit.jupiter.api.Test;
 
+import java.lang.reflect.ParameterizedType;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 class EventBusTest {
@@ -49,7 +72,11 @@ void testCall() {
 
     @Test
     void testCancellable() {
-        final EventBus eventBus = EventBus.create();
+        final EventBus eventBus = EventBus.builder()
+            .exceptionHandler((listener, event, exception) -> {
+                throw new AssertionError(exception);
+            })
+            .build();
         final AtomicBoolean result = new AtomicBoolean(false);
 
         final EventListener<CancellableTest> listener = EventListener
@@ -130,6 +157,703 @@ void testPriorities() {
         assertEquals(100, indicator.get());
     }
 
+    @Test
+    void testSticky() {
+        final EventBus eventBus = EventBus.create();
+        final AtomicInteger received = new AtomicInteger(0);
+        final EventTest event = new EventTest();
+
+        eventBus.callSticky(event);
+        assertSame(event, eventBus.stickyEvent(EventTest.class));
+
+        eventBus.register(EventListener.of(EventTest.class, eventTest -> received.incrementAndGet()));
+        assertEquals(0, received.get(), "A non sticky listener should not receive the sticky event");
+
+        eventBus.register(EventListener
+            .builder(EventTest.class)
+            .sticky(true)
+            .handler(eventTest -> {
+                assertSame(event, eventTest);
+                received.incrementAndGet();
+            })
+            .build());
+        assertEquals(1, received.get(), "A sticky listener should receive the sticky event on registration");
+
+        assertSame(event, eventBus.removeStickyEvent(EventTest.class));
+        assertNull(eventBus.stickyEvent(EventTest.class));
+    }
+
+    @Test
+    void testDeadEvent() {
+        final EventBus eventBus = EventBus.create();
+        final AtomicInteger deadEvents = new AtomicInteger(0);
+
+        eventBus.call(new EventTest());
+        assertEquals(1, eventBus.unhandledCount(EventTest.class));
+        assertEquals(0, eventBus.unhandledCount(DeadEvent.class), "Dead events should not be counted themselves");
+
+        eventBus.register(DeadEvent.class, deadEvent -> {
+            assertTrue(deadEvent.event() instanceof EventTest);
+            deadEvents.incrementAndGet();
+        });
+        eventBus.call(new EventTest());
+        assertEquals(1, deadEvents.get());
+        assertEquals(2, eventBus.unhandledCounts().get(EventTest.class).longValue());
+
+        eventBus.register(EventTest.class, eventTest -> {
+        });
+        eventBus.call(new EventTest());
+        assertEquals(1, deadEvents.get(), "A handled event should not be called as dead event");
+        assertEquals(2, eventBus.unhandledCount(EventTest.class));
+    }
+
+    @Test
+    void testHierarchyOrder() {
+        final EventBus eventBus = EventBus.create();
+        final List<String> order = new ArrayList<>();
+
+        eventBus.register(EventListener.builder(Marker.class).priority(5).handler(event -> order.add("marker")).build());
+        eventBus.register(EventListener.builder(MarkedRecursive.class).priority(10).handler(event -> order.add("direct")).build());
+        eventBus.register(EventListener.builder(Recursive.class).priority(-1).handler(event -> order.add("super")).build());
+        eventBus.register(EventListener.builder(Recursive.class).priority(-1).handler(event -> order.add("super2")).build());
+
+        eventBus.call(new MarkedRecursive());
+        assertIterableEquals(List.of("super", "super2", "marker", "direct"), order,
+            "Listeners of the whole hierarchy should be merged in priority order");
+    }
+
+    @Test
+    void testExceptionIsolation() {
+        final AtomicInteger failures = new AtomicInteger(0);
+        final AtomicBoolean result = new AtomicBoolean(false);
+        final EventBus eventBus = EventBus.builder()
+            .exceptionHandler((listener, event, exception) -> {
+                assertTrue(exception instanceof IllegalStateException);
+                failures.incrementAndGet();
+            })
+            .build();
+
+        eventBus.register(EventListener.builder(EventTest.class).priority(-1).handler(event -> {
+            throw new IllegalStateException();
+        }).build());
+        eventBus.register(EventTest.class, event -> result.set(true));
+
+        eventBus.call(new EventTest());
+        assertEquals(1, failures.get());
+        assertTrue(result.get(), "A failing listener should not prevent the following listeners from being called");
+    }
+
+    @Test
+    void testCircuitBreaker() throws InterruptedException {
+        final AtomicInteger invocations = new AtomicInteger(0);
+        final EventBus eventBus = EventBus.builder()
+            .exceptionHandler((listener, event, exception) -> {
+            })
+            .circuitBreaker(2, Duration.ofMillis(50))
+            .build();
+        final EventBus otherBus = EventBus.builder()
+            .exceptionHandler((listener, event, exception) -> {
+            })
+            .circuitBreaker(2, Duration.ofMillis(50))
+            .build();
+        final EventListener<EventTest> listener = EventListener.of(EventTest.class, event -> {
+            invocations.incrementAndGet();
+            throw new IllegalStateException();
+        });
+
+        eventBus.register(listener);
+        otherBus.register(listener);
+
+        for (int i = 0; i < 5; i++) {
+            eventBus.call(new EventTest());
+        }
+        assertEquals(2, invocations.get(), "The listener should be skipped after the circuit was tripped");
+
+        otherBus.call(new EventTest());
+        assertEquals(3, invocations.get(), "The circuit should only be tripped on the bus the listener failed on");
+        otherBus.unregister(listener);
+
+        Thread.sleep(60);
+        eventBus.call(new EventTest());
+        eventBus.call(new EventTest());
+        assertEquals(4, invocations.get(), "A failure after the cool-down should trip the circuit right away");
+    }
+
+    @Test
+    void testDeadline() {
+        final EventBus eventBus = EventBus.create();
+        final AtomicInteger invocations = new AtomicInteger(0);
+
+        eventBus.register(EventListener.builder(DeadlineTest.class).priority(-1).handler(event -> {
+            invocations.incrementAndGet();
+            while (event.slow && !event.isExpired()) {
+                Thread.onSpinWait();
+            }
+        }).build());
+        eventBus.register(DeadlineTest.class, event -> invocations.incrementAndGet());
+
+        eventBus.call(new DeadlineTest(Duration.ofMillis(20), true));
+        assertEquals(1, invocations.get(), "The listeners after the deadline should be skipped");
+        assertEquals(1, eventBus.expiredCount());
+
+        eventBus.call(new DeadlineTest(Duration.ofMinutes(1), false));
+        assertEquals(3, invocations.get(), "An event before its deadline should reach all listeners");
+        assertEquals(1, eventBus.expiredCount());
+    }
+
+    @Test
+    void testDeferred() {
+        final EventBus eventBus = EventBus.create();
+        final List<String> received = new ArrayList<>();
+        eventBus.register(Named.class, event -> received.add(event.name()));
+
+        try (DeferredEventScope scope = eventBus.deferred()) {
+            scope.call(new Named("rolled back"));
+        }
+        assertTrue(received.isEmpty(), "Events of a rolled back scope should be discarded");
+
+        final DeferredEventScope scope = eventBus.deferred();
+        scope.call(new Named("first"));
+        scope.call("key", new Named("outdated"));
+        scope.call(new Named("second"));
+
+        try (DeferredEventScope nested = eventBus.deferred()) {
+            nested.call("key", new Named("latest"));
+            nested.commit();
+        }
+        try (DeferredEventScope nested = eventBus.deferred()) {
+            nested.call(new Named("nested rolled back"));
+        }
+
+        assertEquals(3, scope.size());
+        assertTrue(received.isEmpty(), "Events should not be called before the commit");
+        scope.commit();
+        assertIterableEquals(List.of("first", "latest", "second"), received);
+        assertThrows(IllegalStateException.class, () -> scope.call(new Named("closed")));
+
+        received.clear();
+        try (DeferredEventScope outer = eventBus.deferred()) {
+            eventBus.call(new Named("bus"));
+            assertTrue(received.isEmpty(), "Events called on the bus should be deferred while a scope is open");
+
+            final DeferredEventScope inner = eventBus.deferred();
+            outer.commit();
+            eventBus.call(new Named("inner"));
+            inner.commit();
+        }
+        assertIterableEquals(List.of("bus", "inner"), received, "A scope closed out of order should not stay current");
+
+        eventBus.call(new Named("direct"));
+        assertEquals("direct", received.get(2), "Events should be called directly once all scopes are closed");
+
+        final AtomicInteger callbacks = new AtomicInteger(0);
+        eventBus.register(CancellableTest.class, event -> event.cancelled(true));
+        try (DeferredEventScope ignored = eventBus.deferred()) {
+            eventBus.callCancellable(new CancellableTest(), callbacks::incrementAndGet);
+            assertEquals(0, callbacks.get(), "A cancellable event should be dispatched even if a scope is open");
+            assertEquals(0, ignored.size(), "A cancellable event should not be buffered in the scope");
+        }
+    }
+
+    @Test
+    void testCallAndCollect() {
+        final List<Exception> failures = new ArrayList<>();
+        final EventBus eventBus = EventBus.builder()
+            .exceptionHandler((listener, event, exception) -> failures.add(exception))
+            .build();
+        final AtomicInteger handled = new AtomicInteger(0);
+
+        eventBus.register(EventListener.builder(Named.class).responder(Integer.class, event -> event.name().length()).build());
+        eventBus.register(EventListener.builder(Named.class).priority(1).responder(Integer.class, event -> 10).build());
+        eventBus.register(EventListener
+            .builder(Named.class)
+            .condition(event -> false)
+            .responder(Integer.class, event -> 1000)
+            .build());
+        eventBus.register(EventListener
+            .builder(Named.class)
+            .handler(event -> handled.incrementAndGet())
+            .build());
+        eventBus.register(EventListener.builder(Named.class).responder(String.class, Named::name).build());
+
+        final List<Integer> results = eventBus.callAndCollect(new Named("four"), Integer.class, Collectors.toList());
+        assertIterableEquals(List.of(4, 10), results, "Results should be collected in priority order");
+        assertEquals(1, handled.get(), "Handlers should still be executed");
+
+        final int sum = eventBus.callAndCollect(new Named("four"), Integer.class, Collectors.summingInt(Integer::intValue), true);
+        assertEquals(14, sum);
+        assertEquals(2, handled.get());
+
+        final List<Object> all = eventBus.callAndCollect(new Named("four"), Object.class, Collectors.toList());
+        assertIterableEquals(List.of(4, "four", 10), all, "Results of every type should be collected for a supertype");
+
+        eventBus.call(new Named("four"));
+        assertEquals(4, handled.get());
+
+        // an unchecked responder returning another type fails as a listener instead of aborting the collection
+        eventBus.register(EventListener.builder(Named.class).responder(Integer.class, uncheckedResponder()).build());
+        assertIterableEquals(List.of(4, 10), eventBus.callAndCollect(new Named("four"), Integer.class, Collectors.toList()));
+        assertEquals(1, failures.size());
+        assertTrue(failures.get(0) instanceof ClassCastException);
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Function<Named, Integer> uncheckedResponder() {
+        return (Function) (Function<Named, String>) Named::name;
+    }
+
+    @Test
+    void testFreeze() {
+        final EventBus eventBus = EventBus.create();
+        final AtomicInteger received = new AtomicInteger(0);
+        final EventListener<EventTest> listener = EventListener.of(EventTest.class, event -> received.incrementAndGet());
+
+        eventBus.register(listener);
+        eventBus.freeze();
+        assertTrue(eventBus.isFrozen());
+
+        eventBus.call(new EventTest());
+        assertEquals(1, received.get());
+        assertThrows(IllegalStateException.class, () -> eventBus.register(EventTest.class, event -> {
+        }));
+        assertThrows(IllegalStateException.class, () -> eventBus.unregister(listener));
+
+        eventBus.unfreeze();
+        eventBus.unregister(listener);
+        eventBus.call(new EventTest());
+        assertEquals(1, received.get(), "The listener should be unregistered after unfreezing");
+    }
+
+    @Test
+    void testBatch() throws InterruptedException {
+        final EventBus eventBus = EventBus.create();
+        final List<Integer> sizes = new CopyOnWriteArrayList<>();
+        final CountDownLatch delivered = new CountDownLatch(1);
+
+        eventBus.register(EventListener.builder(EventTest.class)
+            .batch(3, Duration.ofHours(1), batch -> sizes.add(batch.size()))
+            .build());
+        eventBus.register(EventListener.builder(Recursive.class)
+            .batch(100, Duration.ofMillis(20), batch -> delivered.countDown())
+            .build());
+
+        for (int i = 0; i < 7; i++) {
+            eventBus.call(new EventTest());
+        }
+
+        assertIterableEquals(List.of(3, 3), sizes, "Full batches should be delivered immediately");
+
+        eventBus.call(new Recursive());
+        assertTrue(delivered.await(5, TimeUnit.SECONDS), "The batch should be delivered after the maximum delay");
+
+        eventBus.shutdown();
+        assertIterableEquals(List.of(3, 3, 1), sizes, "The remaining events should be delivered on shutdown");
+
+        // listeners built from the same builder and buses sharing a listener do not share a batch
+        final List<Integer> sharedSizes = new CopyOnWriteArrayList<>();
+        final EventListener.Builder<EventTest> builder = EventListener.builder(EventTest.class)
+            .batch(2, Duration.ofHours(1), batch -> sharedSizes.add(batch.size()));
+        final EventListener<EventTest> shared = builder.build();
+        final EventBus first = EventBus.create();
+        final EventBus second = EventBus.create();
+
+        first.register(shared);
+        first.register(builder.build());
+        second.register(shared);
+        first.call(new EventTest());
+        second.call(new EventTest());
+        assertTrue(sharedSizes.isEmpty(), "Every registration should buffer its own events");
+
+        first.shutdown();
+        second.shutdown();
+        assertIterableEquals(List.of(1, 1, 1), sharedSizes);
+    }
+
+    @Test
+    void testCallCancellableAsync() throws Exception {
+        final EventBus eventBus = EventBus.create();
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        final AtomicInteger callbacks = new AtomicInteger(0);
+
+        eventBus.register(ConcurrentCancellableTest.class, event -> event.cancelled(event.cancel));
+
+        try {
+            assertTrue(eventBus.callCancellableAsync(new ConcurrentCancellableTest(false), executor, callbacks::incrementAndGet)
+                .get(5, TimeUnit.SECONDS));
+            assertFalse(eventBus.callCancellableAsync(new ConcurrentCancellableTest(true), executor, callbacks::incrementAndGet)
+                .get(5, TimeUnit.SECONDS));
+            assertEquals(1, callbacks.get(), "The callback should only run for the event which was not cancelled");
+        } finally {
+            executor.shutdown();
+        }
+    }
+
+    @Test
+    void testDedup() {
+        final EventBus eventBus = EventBus.builder()
+            .dedup(event -> event instanceof Named named ? named.name() : null, 1)
+            .build();
+        final List<String> received = new ArrayList<>();
+
+        eventBus.register(Named.class, event -> received.add(event.name()));
+
+        // a capacity of one uses a single segment, so the eviction does not depend on the hash of the ids
+        eventBus.call(new Named("a"));
+        eventBus.call(new Named("a"));
+        eventBus.call(new Named("b"));
+        eventBus.call(new Named("a"));
+
+        assertIterableEquals(List.of("a", "b", "a"), received, "The evicted id should be dispatched again");
+        assertEquals(1, eventBus.duplicateCount());
+        assertEquals(0.25, eventBus.duplicateRate(), 1e-9);
+
+        final Named sticky = new Named("a");
+        eventBus.callSticky(sticky);
+        assertNull(eventBus.stickyEvent(Named.class), "A duplicate should not be kept as the sticky event");
+        eventBus.callSticky(new Named("c"));
+        eventBus.callSticky(sticky);
+        assertSame(sticky, eventBus.stickyEvent(Named.class));
+        assertIterableEquals(List.of("a", "b", "a", "c", "a"), received);
+        assertEquals(2, eventBus.duplicateCount());
+    }
+
+    @Test
+    void testDerive() {
+        final EventBus eventBus = EventBus.create();
+        final AtomicInteger mapped = new AtomicInteger(0);
+        final List<String> received = new ArrayList<>();
+        final EventListener<Named> derivation = eventBus.derive(Named.class, String.class, event -> {
+            mapped.incrementAndGet();
+            return event.name().isEmpty() ? null : event.name();
+        });
+
+        eventBus.call(new Named("skipped"));
+        assertEquals(0, mapped.get(), "The mapping should be skipped without listeners on the derived type");
+
+        eventBus.register(String.class, received::add);
+        eventBus.register(CharSequence.class, name -> received.add(name + "!"));
+        eventBus.call(new Named("a"));
+        eventBus.call(new Named(""));
+        assertEquals(2, mapped.get());
+        assertIterableEquals(List.of("a", "a!"), received);
+
+        eventBus.unregister(derivation);
+        eventBus.call(new Named("b"));
+        assertEquals(2, mapped.get(), "The derivation should be unregistered");
+
+        // listeners of a subclass of the derived type receive the derived events as well
+        final EventBus otherBus = EventBus.create();
+        final List<String> names = new ArrayList<>();
+        otherBus.derive(Named.class, CharSequence.class, Named::name);
+        otherBus.register(String.class, names::add);
+        otherBus.call(new Named("c"));
+        assertIterableEquals(List.of("c"), names);
+    }
+
+    @Test
+    void testExecutor() {
+        final EventBus eventBus = EventBus.create();
+        final List<Runnable> tasks = new ArrayList<>();
+        final Executor loop = tasks::add;
+        final List<String> received = new ArrayList<>();
+
+        eventBus.register(EventListener.builder(EventTest.class)
+            .executor(loop)
+            .handler(event -> received.add("first"))
+            .build());
+        eventBus.register(EventListener.builder(EventTest.class)
+            .executor(loop)
+            .handler(event -> received.add("second"))
+            .build());
+        eventBus.register(EventTest.class, event -> received.add("inline"));
+
+        eventBus.call(new EventTest());
+        assertEquals(1, tasks.size(), "Listeners sharing an executor should be handed over as one task");
+        assertIterableEquals(List.of("inline"), received);
+
+        tasks.forEach(Runnable::run);
+        assertIterableEquals(List.of("inline", "first", "second"), received);
+
+        // executor listeners are handed over at their position in the priority order
+        final EventBus cancellingBus = EventBus.create();
+        final List<String> order = new ArrayList<>();
+        tasks.clear();
+        cancellingBus.register(EventListener.builder(CancellableTest.class)
+            .priority(-1)
+            .executor(loop)
+            .handler(event -> order.add("before"))
+            .build());
+        cancellingBus.register(EventListener.builder(CancellableTest.class)
+            .handler(event -> {
+                order.add("cancel");
+                event.cancelled(true);
+            })
+            .build());
+        cancellingBus.register(EventListener.builder(CancellableTest.class)
+            .priority(1)
+            .executor(loop)
+            .handler(event -> order.add("after"))
+            .build());
+
+        cancellingBus.call(new CancellableTest());
+        assertEquals(1, tasks.size(), "Listeners after the cancellation should not be handed over");
+        tasks.forEach(Runnable::run);
+        assertIterableEquals(List.of("cancel", "before"), order, "A cancellation after the hand-over should not skip it");
+
+        final List<Exception> failures = new ArrayList<>();
+        final EventBus rejectingBus = EventBus.builder()
+            .exceptionHandler((listener, event, exception) -> failures.add(exception))
+            .build();
+        rejectingBus.register(EventListener.builder(EventTest.class)
+            .executor(task -> {
+                throw new RejectedExecutionException("closed");
+            })
+            .handler(event -> received.add("rejected"))
+            .build());
+
+        rejectingBus.call(new EventTest());
+        assertEquals(1, failures.size(), "A rejected hand-over should be reported to the exception handler");
+        assertTrue(failures.get(0) instanceof RejectedExecutionException);
+
+        tasks.clear();
+        received.clear();
+        eventBus.callSticky(new Named("sticky"));
+        eventBus.register(EventListener.builder(Named.class)
+            .executor(loop)
+            .sticky(true)
+            .handler(event -> received.add(event.name()))
+            .build());
+        assertTrue(received.isEmpty(), "A sticky event should not be replayed on the registering thread");
+        assertEquals(1, tasks.size(), "A sticky event should be replayed on the executor of the listener");
+        tasks.forEach(Runnable::run);
+        assertIterableEquals(List.of("sticky"), received);
+    }
+
+    @Test
+    void testFlightRecorder() throws Exception {
+        final EventBus eventBus = EventBus.builder()
+            .exceptionHandler((listener, event, exception) -> {
+            })
+            .build();
+        final Path file = Files.createTempFile("event-bus", ".jfr");
+
+        eventBus.register(EventListener.builder(CancellableTest.class)
+            .priority(5)
+            .handler(event -> event.cancelled(true))
+            .build());
+        eventBus.register(EventListener.builder(EventTest.class)
+            .priority(7)
+            .handler(event -> {
+                throw new IllegalStateException("failure");
+            })
+            .build());
+        eventBus.register(EventListener.builder(Named.class).responder(String.class, Named::name).build());
+
+        try (Recording recording = new Recording()) {
+            recording.enable("org.aero.common.event.EventDispatch").withoutThreshold();
+            recording.enable("org.aero.common.event.ListenerInvocation").withoutThreshold();
+            recording.start();
+            eventBus.call(new CancellableTest());
+            eventBus.call(new EventTest());
+            eventBus.callAndCollect(new Named("collected"), String.class, Collectors.toList());
+            recording.stop();
+            recording.dump(file);
+        }
+
+        final List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+        Files.delete(file);
+
+        final RecordedEvent dispatch = events.stream()
+            .filter(event -> event.getEventType().getName().equals("org.aero.common.event.EventDispatch"))
+            .findFirst()
+            .orElseThrow();
+        final RecordedEvent invocation = events.stream()
+            .filter(event -> event.getEventType().getName().equals("org.aero.common.event.ListenerInvocation"))
+            .findFirst()
+            .orElseThrow();
+
+        assertEquals(CancellableTest.class.getName(), dispatch.getClass("eventClass").getName());
+        assertEquals(1, dispatch.getInt("listeners"));
+        assertTrue(dispatch.getBoolean("cancelled"));
+        assertEquals(5, invocation.getInt("priority"));
+        assertTrue(
+            events.stream().anyMatch(event -> event.getEventType().getName().equals("org.aero.common.event.ListenerInvocation")
+                && event.getInt("priority") == 7),
+            "A failing listener should still be recorded"
+        );
+        assertTrue(
+            events.stream().anyMatch(event -> event.getEventType().getName().equals("org.aero.common.event.EventDispatch")
+                && event.getClass("eventClass").getName().equals(Named.class.getName())),
+            "A collecting call should be recorded as a dispatch"
+        );
+    }
+
+    @Test
+    void testSwap() {
+        final EventBus eventBus = EventBus.create();
+        final List<String> received = new ArrayList<>();
+        final EventListener<EventTest> kept = EventListener.of(EventTest.class, event -> received.add("kept"));
+
+        eventBus.register(kept);
+        eventBus.register(EventListener.builder(EventTest.class)
+            .priority(1)
+            .handler(event -> received.add("old"))
+            .build());
+
+        eventBus.swap(listener -> listener.priority() == 1, List.of(
+            kept,
+            EventListener.builder(EventTest.class).priority(2).handler(event -> received.add("new")).build(),
+            EventListener.of(Recursive.class, event -> received.add("recursive"))
+        ));
+
+        eventBus.call(new EventTest());
+        eventBus.call(new Recursive2());
+        assertIterableEquals(List.of("kept", "new", "recursive"), received);
+
+        // a listener given twice is bound once, a removed listener given again stays registered
+        final AtomicInteger replayed = new AtomicInteger(0);
+        final EventListener<Named> sticky = EventListener.builder(Named.class)
+            .sticky(true)
+            .handler(event -> replayed.incrementAndGet())
+            .build();
+        eventBus.callSticky(new Named("sticky"));
+        eventBus.swap(listener -> false, List.of(sticky, sticky));
+        assertEquals(1, replayed.get(), "The sticky event should be replayed once");
+
+        received.clear();
+        eventBus.swap(listener -> listener == kept, List.of(kept));
+        eventBus.call(new EventTest());
+        assertIterableEquals(List.of("kept", "new"), received);
+
+        // the buffered events of removed batching listeners are delivered when they are removed
+        final List<Integer> batches = new ArrayList<>();
+        final EventListener<Named> batching = EventListener.builder(Named.class)
+            .batch(10, Duration.ofHours(1), batch -> batches.add(batch.size()))
+            .build();
+        eventBus.register(batching);
+        eventBus.call(new Named("swapped"));
+        eventBus.swap(listener -> listener == batching, List.of());
+        assertIterableEquals(List.of(1), batches, "A swapped out batch should be flushed");
+
+        eventBus.register(batching);
+        eventBus.call(new Named("unregistered"));
+        eventBus.unregister(batching);
+        assertIterableEquals(List.of(1, 1), batches, "An unregistered batch should be flushed");
+    }
+
+    @Test
+    void testSampling() {
+        final EventBus eventBus = EventBus.create();
+        final AtomicInteger everyThird = new AtomicInteger(0);
+        final AtomicInteger conditions = new AtomicInteger(0);
+        final AtomicInteger sampled = new AtomicInteger(0);
+
+        eventBus.register(EventListener.builder(EventTest.class)
+            .everyNth(3)
+            .condition(event -> conditions.incrementAndGet() > 0)
+            .handler(event -> everyThird.incrementAndGet())
+            .build());
+        eventBus.register(EventListener.builder(EventTest.class)
+            .sample(0.25)
+            .handler(event -> sampled.incrementAndGet())
+            .build());
+
+        for (int i = 0; i < 10_000; i++) {
+            eventBus.call(new EventTest());
+        }
+
+        assertEquals(3333, everyThird.get());
+        assertEquals(3333, conditions.get(), "Conditions should only run for sampled events");
+        assertTrue(sampled.get() > 2000 && sampled.get() < 3000, "About a quarter of the events should be sampled");
+
+        final AtomicInteger everySecond = new AtomicInteger(0);
+        final EventListener<EventTest> shared = EventListener.builder(EventTest.class)
+            .everyNth(2)
+            .handler(event -> everySecond.incrementAndGet())
+            .build();
+        final EventBus first = EventBus.create();
+        final EventBus second = EventBus.create();
+        first.register(shared);
+        second.register(shared);
+
+        first.call(new EventTest());
+        second.call(new EventTest());
+        assertEquals(0, everySecond.get(), "Every event bus should count the events of the listener separately");
+        first.call(new EventTest());
+        assertEquals(1, everySecond.get());
+    }
+
+    @Test
+    void testCallLater() throws InterruptedException {
+        final EventBus eventBus = EventBus.create();
+        final CountDownLatch called = new CountDownLatch(1);
+        final List<String> received = new CopyOnWriteArrayList<>();
+
+        eventBus.register(Named.class, event -> {
+            received.add(event.name());
+            called.countDown();
+        });
+
+        final ScheduledEvent cancelled = eventBus.callLater(new Named("cancelled"), Duration.ofMillis(20));
+        final ScheduledEvent delayed = eventBus.callLater(new Named("delayed"), Duration.ofMillis(30));
+
+        assertTrue(cancelled.cancel());
+        assertTrue(called.await(5, TimeUnit.SECONDS));
+        assertTrue(delayed.isCalled());
+        assertFalse(delayed.cancel(), "A called event can not be cancelled anymore");
+        assertIterableEquals(List.of("delayed"), received);
+
+        eventBus.shutdown();
+        assertThrows(IllegalStateException.class, () -> eventBus.callLater(new Named("late"), Duration.ZERO));
+    }
+
+    @Test
+    void testGenericEvents() {
+        final EventBus eventBus = EventBus.create();
+        final List<String> received = new ArrayList<>();
+
+        eventBus.register(EventListener.builder(new TypeToken<EntityEvent<CharSequence>>() { })
+            .handler(event -> received.add("text " + event.entity()))
+            .build());
+        eventBus.register(EventListener.builder(new TypeToken<EntityEvent<Integer>>() { })
+            .handler(event -> received.add("number " + event.entity()))
+            .build());
+        eventBus.register(EventListener.builder(new TypeToken<EntityEvent<?>>() { })
+            .handler(event -> received.add("any " + event.entity()))
+            .build());
+
+        eventBus.call(new EntityEvent<>("a"));
+        eventBus.call(new EntityEvent<>(1));
+        eventBus.call(new EntityEvent<>(1.5));
+
+        assertIterableEquals(List.of("text a", "any a", "number 1", "any 1", "any 1.5"), received);
+        assertEquals(new TypeToken<EntityEvent<String>>() { }.type(), TypeToken.parameterized(EntityEvent.class, String.class));
+        assertEquals(TypeToken.parameterized(EntityEvent.class, String.class), new TypeToken<EntityEvent<String>>() { }.type());
+
+        // the type arguments are resolved against generic supertypes and checked against wildcard bounds
+        final EventBus boundedBus = EventBus.create();
+        final List<String> bounded = new ArrayList<>();
+
+        boundedBus.register(EventListener.builder(new TypeToken<Holder<CharSequence>>() { })
+            .handler(event -> bounded.add("holder text"))
+            .build());
+        boundedBus.register(EventListener.builder(new TypeToken<Holder<Integer>>() { })
+            .handler(event -> bounded.add("holder number"))
+            .build());
+        boundedBus.register(EventListener.builder(new TypeToken<EntityEvent<? extends Number>>() { })
+            .handler(event -> bounded.add("extends " + event.entity()))
+            .build());
+        boundedBus.register(EventListener.builder(new TypeToken<EntityEvent<? super Integer>>() { })
+            .handler(event -> bounded.add("super " + event.entity()))
+            .build());
+
+        boundedBus.call(new EntityEvent<>("a"));
+        boundedBus.call(new EntityEvent<>(1));
+        boundedBus.call(new EntityEvent<>(1.5));
+
+        assertIterableEquals(List.of("holder text", "holder number", "extends 1", "super 1", "extends 1.5"), bounded);
+    }
+
     static class EventTest {
 
     }
@@ -138,6 +862,34 @@ static class CancellableTest extends AbstractCancellableEvent {
 
     }
 
+    static class ConcurrentCancellableTest extends AbstractConcurrentCancellableEvent {
+
+        private final boolean cancel;
+
+        ConcurrentCancellableTest(final boolean cancel) {
+            this.cancel = cancel;
+        }
+    }
+
+    interface Holder<H> {
+
+    }
+
+    record EntityEvent<E>(E entity) implements GenericEvent, Holder<E> {
+
+        private static final ClassValue<ParameterizedType> TYPES = new ClassValue<>() {
+            @Override
+            protected ParameterizedType computeValue(final Class<?> type) {
+                return TypeToken.parameterized(EntityEvent.class, type);
+            }
+        };
+
+        @Override
+        public @NotNull ParameterizedType genericType() {
+            return TYPES.get(this.entity.getClass());
+        }
+    }
+
     static class Recursive {
 
     }
@@ -145,4 +897,26 @@ static class Recursive {
     static class Recursive2 extends Recursive {
 
     }
+
+    static class DeadlineTest extends AbstractDeadlineEvent {
+
+        private final boolean slow;
+
+        DeadlineTest(final Duration timeToLive, final boolean slow) {
+            super(timeToLive);
+            this.slow = slow;
+        }
+    }
+
+    record Named(String name) {
+
+    }
+
+    interface Marker {
+
+    }
+
+    static class MarkedRecursive extends Recursive implements Marker {
+
+    }
 }
@@ -0,0 +1,63 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EventTraceRecorderTest {
+
+    @Test
+    void testNesting() {
+        final EventTraceRecorder recorder = new EventTraceRecorder(4);
+        final long rootParent = recorder.open();
+        final long rootId = recorder.current();
+        final long childParent = recorder.open();
+
+        assertEquals(0, rootParent);
+        assertEquals(rootId, childParent, "A nested span should link to the running span");
+
+        recorder.close(childParent, String.class, System.nanoTime());
+        assertEquals(rootId, recorder.current());
+        recorder.resume(rootId, () -> recorder.close(recorder.open(), Integer.class, System.nanoTime()));
+        recorder.close(rootParent, Object.class, System.nanoTime());
+        assertEquals(0, recorder.current());
+
+        final List<EventSpan> spans = recorder.dump();
+        assertEquals(3, spans.size());
+        assertEquals(Object.class, spans.get(0).eventType());
+        assertEquals(rootId, spans.get(1).parentId());
+        assertEquals(rootId, spans.get(2).parentId());
+    }
+
+    @Test
+    void testRingBuffer() {
+        final EventTraceRecorder recorder = new EventTraceRecorder(4);
+
+        for (int i = 0; i < 10; i++) {
+            recorder.close(recorder.open(), String.class, System.nanoTime());
+        }
+
+        final List<EventSpan> spans = recorder.dump();
+        assertEquals(4, spans.size(), "The ring buffer should only keep the latest spans");
+        assertEquals(7, spans.get(0).id());
+        assertEquals(10, spans.get(3).id());
+    }
+}
@@ -0,0 +1,128 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ShardedEventBusTest {
+
+    @Test
+    void testPartitions() {
+        final ShardedEventBus eventBus = ShardedEventBus.builder()
+            .shards(4)
+            .partitioner(event -> event instanceof Keyed keyed ? keyed.key() : 0)
+            .build();
+        final Map<Integer, List<Integer>> received = new ConcurrentHashMap<>();
+        final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        eventBus.register(Keyed.class, event -> {
+            threads.add(Thread.currentThread().getName());
+            // every key is only dispatched by the worker of its shard
+            received.computeIfAbsent(event.key(), key -> new ArrayList<>()).add(event.sequence());
+        });
+
+        for (int sequence = 0; sequence < 100; sequence++) {
+            for (int key = 0; key < 8; key++) {
+                eventBus.call(new Keyed(key, sequence));
+            }
+        }
+
+        eventBus.close();
+
+        assertEquals(0, eventBus.pending());
+        assertEquals(4, threads.size(), "Every shard should be dispatched by its own worker");
+        for (int key = 0; key < 8; key++) {
+            final List<Integer> sequences = received.get(key);
+            assertEquals(100, sequences.size());
+            for (int sequence = 0; sequence < 100; sequence++) {
+                assertEquals(sequence, sequences.get(sequence).intValue(), "Events of a partition should keep their order");
+            }
+        }
+        assertThrows(IllegalStateException.class, () -> eventBus.call(new Keyed(0, 0)));
+    }
+
+    @Test
+    void testListenerStatePerShard() {
+        final ShardedEventBus eventBus = ShardedEventBus.builder()
+            .shards(2)
+            .partitioner(event -> event instanceof Keyed keyed ? keyed.key() : 0)
+            .shardBuilder(EventBus.builder()
+                .circuitBreaker(1, Duration.ofHours(1))
+                .exceptionHandler((listener, event, exception) -> {
+                }))
+            .build();
+        final List<Integer> received = new CopyOnWriteArrayList<>();
+
+        eventBus.register(Keyed.class, event -> {
+            if (event.key() == 0) {
+                throw new IllegalStateException("failure");
+            }
+            received.add(event.sequence());
+        });
+
+        eventBus.call(new Keyed(0, 0));
+        eventBus.call(new Keyed(1, 1));
+        eventBus.call(new Keyed(1, 2));
+        eventBus.close();
+
+        assertEquals(List.of(1, 2), received, "A circuit opened on one shard should not affect the other shards");
+    }
+
+    @Test
+    void testDedupPerShard() {
+        final ShardedEventBus byKey = ShardedEventBus.builder()
+            .shards(2)
+            .partitioner(event -> event instanceof Keyed keyed ? keyed.key() : 0)
+            .shardBuilder(EventBus.builder().dedup(event -> event instanceof Keyed keyed ? keyed.key() : null, 16))
+            .build();
+        final ShardedEventBus bySequence = ShardedEventBus.builder()
+            .shards(2)
+            .partitioner(event -> event instanceof Keyed keyed ? keyed.sequence() : 0)
+            .shardBuilder(EventBus.builder().dedup(event -> event instanceof Keyed keyed ? keyed.key() : null, 16))
+            .build();
+        final AtomicInteger byKeyCount = new AtomicInteger();
+        final AtomicInteger bySequenceCount = new AtomicInteger();
+
+        byKey.register(Keyed.class, event -> byKeyCount.incrementAndGet());
+        bySequence.register(Keyed.class, event -> bySequenceCount.incrementAndGet());
+        for (int sequence = 0; sequence < 2; sequence++) {
+            byKey.call(new Keyed(7, sequence));
+            bySequence.call(new Keyed(7, sequence));
+        }
+        byKey.close();
+        bySequence.close();
+
+        assertEquals(1, byKeyCount.get(), "Partitioning on the dedup id should detect the duplicate");
+        assertEquals(2, bySequenceCount.get(), "Every shard should only deduplicate its own partitions");
+    }
+
+    record Keyed(int key, int sequence) {
+
+    }
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertIterableEquals;
+
+class TickEventQueueTest {
+
+    @Test
+    void testDrain() {
+        final EventBus eventBus = EventBus.create();
+        final TickEventQueue queue = TickEventQueue.create(eventBus);
+        final List<String> received = new ArrayList<>();
+
+        eventBus.register(String.class, event -> {
+            received.add(event);
+            if (event.equals("b")) {
+                queue.enqueue("d");
+            }
+        });
+
+        queue.enqueue("a");
+        queue.enqueue("b");
+        queue.enqueue("c");
+
+        assertEquals(1, queue.drain(0), "A drain without budget should still call one event");
+        assertEquals(2, queue.pending());
+        assertEquals(1, queue.carriedOverTicks());
+        assertEquals(2, queue.carriedOverCount());
+
+        assertEquals(2, queue.drain(Long.MAX_VALUE), "Events queued while draining belong to the next drain");
+        assertIterableEquals(List.of("a", "b", "c"), received);
+        assertEquals(1, queue.pending());
+
+        assertEquals(1, queue.drain(Long.MAX_VALUE));
+        assertEquals(0, queue.pending());
+        assertEquals(1, queue.carriedOverTicks());
+        assertEquals(2, queue.carriedOverCount());
+    }
+}
@@ -0,0 +1,134 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TimerWheelTest {
+
+    @Test
+    void testManyTimeouts() throws InterruptedException {
+        final TimerWheel timerWheel = new TimerWheel("timer-wheel-test", TimeUnit.MILLISECONDS.toNanos(1), 64);
+        final int count = 20_000;
+        final CountDownLatch expired = new CountDownLatch(count / 2);
+        final AtomicInteger cancelledRuns = new AtomicInteger(0);
+
+        try {
+            for (int i = 0; i < count; i++) {
+                // the delays span several rotations of the wheel
+                final long delay = TimeUnit.MILLISECONDS.toNanos(i % 200);
+                if (i % 2 == 0) {
+                    timerWheel.schedule(expired::countDown, delay);
+                } else {
+                    timerWheel.schedule(cancelledRuns::incrementAndGet, delay).cancel();
+                }
+            }
+
+            assertTrue(expired.await(10, TimeUnit.SECONDS));
+            assertEquals(0, cancelledRuns.get(), "Cancelled timeouts should never run");
+            assertEquals(0, timerWheel.pending());
+        } finally {
+            timerWheel.stop();
+        }
+    }
+
+    @Test
+    void testDelay() throws InterruptedException {
+        final TimerWheel timerWheel = new TimerWheel("timer-wheel-test", TimeUnit.MILLISECONDS.toNanos(1), 8);
+        final CountDownLatch expired = new CountDownLatch(1);
+        final long start = System.nanoTime();
+        final long[] elapsed = new long[1];
+
+        try {
+            timerWheel.schedule(() -> {
+                elapsed[0] = System.nanoTime() - start;
+                expired.countDown();
+            }, TimeUnit.MILLISECONDS.toNanos(50));
+
+            assertTrue(expired.await(5, TimeUnit.SECONDS));
+            assertTrue(elapsed[0] >= TimeUnit.MILLISECONDS.toNanos(50), "A timeout should never expire early");
+        } finally {
+            timerWheel.stop();
+        }
+    }
+
+    @Test
+    void testIdleAndFailures() throws InterruptedException {
+        final TimerWheel timerWheel = new TimerWheel("timer-wheel-idle-test", TimeUnit.MILLISECONDS.toNanos(1), 8);
+        final CountDownLatch expired = new CountDownLatch(1);
+
+        try {
+            assertTrue(awaitState("timer-wheel-idle-test", Thread.State.WAITING), "An idle wheel should not tick");
+
+            // a failing task does not stop the wheel thread
+            timerWheel.schedule(() -> {
+                throw new AssertionError("failure");
+            }, 0);
+            timerWheel.schedule(expired::countDown, TimeUnit.MILLISECONDS.toNanos(5));
+            assertTrue(expired.await(5, TimeUnit.SECONDS));
+        } finally {
+            timerWheel.stop();
+        }
+
+        final TimerWheel.Timeout timeout = timerWheel.schedule(() -> {
+        }, 0);
+        assertTrue(timeout.isCancelled(), "A timeout scheduled on a stopped wheel should be cancelled");
+        assertEquals(0, timerWheel.pending());
+    }
+
+    @Test
+    void testCancelledWhileIdle() throws InterruptedException {
+        final TimerWheel timerWheel = new TimerWheel("timer-wheel-cancel-test", TimeUnit.MILLISECONDS.toNanos(1), 8);
+
+        try {
+            for (int i = 0; i < 100; i++) {
+                timerWheel.schedule(() -> {
+                }, TimeUnit.HOURS.toNanos(1)).cancel();
+            }
+
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (timerWheel.queued() != 0 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(0, timerWheel.queued(), "Cancelled timeouts should be dropped before the wheel goes idle");
+            assertEquals(0, timerWheel.pending());
+        } finally {
+            timerWheel.stop();
+        }
+    }
+
+    private static boolean awaitState(final String threadName, final Thread.State state) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+
+        while (System.nanoTime() < deadline) {
+            for (final Thread thread : Thread.getAllStackTraces().keySet()) {
+                if (thread.getName().equals(threadName) && thread.getState() == state) {
+                    return true;
+                }
+            }
+            Thread.sleep(1);
+        }
+        return false;
+    }
+}
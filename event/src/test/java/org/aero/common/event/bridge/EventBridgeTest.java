@@ -0,0 +1,160 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event.bridge;
+
+import org.aero.common.event.EventBus;
+import org.aero.common.event.codec.EventCodec;
+import org.aero.common.event.codec.EventCodecRegistry;
+import org.jetbrains.annotations.NotNull;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventBridgeTest {
+
+    @Test
+    void testForwarding() throws Exception {
+        final Path directory = Files.createTempDirectory("event-bridge");
+        final Path socket = directory.resolve("bridge.sock");
+        final EventCodecRegistry codecs = EventCodecRegistry.create();
+        codecs.register(1, new PingCodec());
+
+        final EventBus source = EventBus.create();
+        final EventBus target = EventBus.create();
+        final List<Ping> received = new CopyOnWriteArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(100);
+
+        target.register(Ping.class, ping -> {
+            received.add(ping);
+            latch.countDown();
+        });
+        target.register(Pong.class, pong -> received.add(new Ping(-1, "pong")));
+
+        try (EventReceiver receiver = EventReceiver.bind(socket, target, codecs);
+             EventForwarder forwarder = EventForwarder.connect(socket, source, codecs, List.of(Ping.class))) {
+            for (int i = 0; i < 100; i++) {
+                source.call(new Ping(i, "ping " + i));
+                source.call(new Pong());
+            }
+
+            assertTrue(latch.await(10, TimeUnit.SECONDS), "All events should be received");
+            assertEquals(100, receiver.receivedCount());
+            // the writer counts a batch after the write, which may complete after the receiver dispatched it
+            awaitCount(forwarder::forwardedCount, 100);
+        }
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(new Ping(i, "ping " + i), received.get(i), "Events should be received in order");
+        }
+        assertEquals(100, received.size(), "Only the selected event types should be forwarded");
+        assertFalse(Files.exists(socket), "The socket file should be deleted on close");
+        Files.delete(directory);
+    }
+
+    @Test
+    void testNoEcho() throws Exception {
+        final Path directory = Files.createTempDirectory("event-bridge");
+        final Path first = directory.resolve("first.sock");
+        final Path second = directory.resolve("second.sock");
+        final EventCodecRegistry codecs = EventCodecRegistry.create();
+        codecs.register(1, new PingCodec());
+
+        final EventBus left = EventBus.create();
+        final EventBus right = EventBus.create();
+        final EventBus relay = EventBus.create();
+        final List<Ping> leftReceived = new CopyOnWriteArrayList<>();
+        final CountDownLatch latch = new CountDownLatch(2);
+
+        left.register(Ping.class, leftReceived::add);
+        right.register(Ping.class, ping -> {
+            if (ping.id() == 0) {
+                relay.call(new Ping(1, "relayed"));
+            }
+            latch.countDown();
+        });
+
+        try (EventReceiver leftReceiver = EventReceiver.bind(first, left, codecs);
+             EventReceiver rightReceiver = EventReceiver.bind(second, right, codecs);
+             EventForwarder toRight = EventForwarder.connect(second, left, codecs, List.of(Ping.class));
+             EventForwarder toLeft = EventForwarder.connect(first, right, codecs, List.of(Ping.class));
+             EventForwarder relayToRight = EventForwarder.connect(second, relay, codecs, List.of(Ping.class))) {
+            left.call(new Ping(0, "ping"));
+
+            assertTrue(latch.await(10, TimeUnit.SECONDS), "The event and the relayed event should be received");
+            assertEquals(2, rightReceiver.receivedCount());
+            awaitCount(relayToRight::forwardedCount, 1);
+            assertEquals(0, toLeft.forwardedCount(), "Received events should not be forwarded back");
+            assertEquals(0, leftReceiver.receivedCount());
+            assertEquals(List.of(new Ping(0, "ping")), leftReceived);
+        }
+
+        Files.delete(directory);
+    }
+
+    private static void awaitCount(final LongSupplier count, final long expected) throws InterruptedException {
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+
+        while (count.getAsLong() < expected && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        assertEquals(expected, count.getAsLong());
+    }
+
+    record Ping(int id, String message) {
+
+    }
+
+    record Pong() {
+
+    }
+
+    static final class PingCodec implements EventCodec<Ping> {
+
+        @Override
+        public @NotNull Class<Ping> type() {
+            return Ping.class;
+        }
+
+        @Override
+        public void encode(@NotNull final Ping event, @NotNull final ByteBuffer buffer) {
+            final byte[] message = event.message().getBytes(StandardCharsets.UTF_8);
+            buffer.putInt(event.id());
+            buffer.putInt(message.length);
+            buffer.put(message);
+        }
+
+        @Override
+        public @NotNull Ping decode(@NotNull final ByteBuffer buffer) {
+            final int id = buffer.getInt();
+            final byte[] message = new byte[buffer.getInt()];
+            buffer.get(message);
+            return new Ping(id, new String(message, StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,105 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event.bridge;
+
+import org.aero.common.event.EventBus;
+import org.aero.common.event.bridge.EventBridgeTest.Ping;
+import org.aero.common.event.bridge.EventBridgeTest.PingCodec;
+import org.aero.common.event.codec.EventCodecRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EventRingTest {
+
+    @Test
+    void testForwardAndPoll() throws Exception {
+        final Path file = Files.createTempFile("event-ring", ".ring");
+        final EventCodecRegistry codecs = EventCodecRegistry.create();
+        codecs.register(1, new PingCodec());
+
+        final EventBus source = EventBus.create();
+        final EventBus target = EventBus.create();
+        final List<Ping> received = new ArrayList<>();
+        target.register(Ping.class, received::add);
+
+        // both sides map the same file, as two processes would do
+        try (EventRing producer = EventRing.open(file, 256, codecs); EventRing consumer = EventRing.open(file, 256, codecs)) {
+            producer.forward(source, List.of(Ping.class));
+
+            // wrap around the ring several times
+            for (int i = 0; i < 100; i++) {
+                source.call(new Ping(i, "ping " + i));
+                assertEquals(1, consumer.poll(target, 10));
+            }
+            assertEquals(0, consumer.poll(target, 10), "The ring should be empty");
+            assertEquals(0, producer.droppedCount());
+
+            int offered = 0;
+            while (producer.offer(new Ping(offered, "full"))) {
+                offered++;
+            }
+            assertTrue(offered > 0, "Events should be written until the ring is full");
+            assertFalse(producer.offer(new Ping(-1, "full")), "A full ring should reject events");
+
+            source.call(new Ping(-1, "dropped"));
+            assertEquals(1, producer.droppedCount(), "A forwarded event should be dropped if the ring is full");
+            assertEquals(offered, consumer.poll(target, Integer.MAX_VALUE));
+        }
+
+        for (int i = 0; i < 100; i++) {
+            assertEquals(new Ping(i, "ping " + i), received.get(i), "Events should be received in order");
+        }
+        Files.delete(file);
+    }
+
+    @Test
+    void testRecordAfterPadding() throws Exception {
+        final Path file = Files.createTempFile("event-ring", ".ring");
+        final EventCodecRegistry codecs = EventCodecRegistry.create();
+        codecs.register(1, new PingCodec());
+
+        final EventBus target = EventBus.create();
+        final List<Ping> received = new ArrayList<>();
+        target.register(Ping.class, received::add);
+
+        try (EventRing ring = EventRing.open(file, 128, codecs)) {
+            // three records of 16 bytes move the tail away from the start of the ring
+            for (int i = 0; i < 3; i++) {
+                assertTrue(ring.offer(new Ping(i, "")));
+            }
+            assertEquals(3, ring.poll(target, 10));
+
+            // a record of 112 bytes does not fit into the 80 bytes until the end of the empty ring
+            final Ping large = new Ping(3, "x".repeat(96));
+            assertFalse(ring.offer(large), "The record should wait until the padding is polled");
+            assertEquals(0, ring.poll(target, 10), "Padding should not be dispatched");
+            assertTrue(ring.offer(large), "The record should fit at the start of the ring");
+            assertEquals(1, ring.poll(target, 10));
+            assertEquals(large, received.get(3));
+        }
+
+        Files.delete(file);
+    }
+}
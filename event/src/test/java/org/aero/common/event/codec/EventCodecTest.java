@@ -0,0 +1,116 @@
+/*
+ * Copyright 2020-2023 AeroService
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package org.aero.common.event.codec;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EventCodecTest {
+
+    @Test
+    void testRecordCodec() {
+        final EventCodec<Sample> codec = EventCodec.ofRecord(Sample.class);
+        final Sample sample = new Sample(
+            42, -7L, 1.5D, true, 'x', "héllo", null, 3, Mode.SLOW, UUID.randomUUID(), new byte[] {1, 2, 3}, new Position(1, 2)
+        );
+        final ByteBuffer buffer = ByteBuffer.allocateDirect(512);
+
+        codec.encode(sample, buffer);
+        final Sample decoded = codec.decode(buffer.flip());
+
+        assertEquals(sample.id(), decoded.id());
+        assertEquals(sample.time(), decoded.time());
+        assertEquals(sample.value(), decoded.value(), 0);
+        assertEquals(sample.flag(), decoded.flag());
+        assertEquals(sample.character(), decoded.character());
+        assertEquals(sample.name(), decoded.name());
+        assertNull(decoded.missing());
+        assertEquals(sample.boxed(), decoded.boxed());
+        assertEquals(sample.mode(), decoded.mode());
+        assertEquals(sample.uuid(), decoded.uuid());
+        assertArrayEquals(sample.bytes(), decoded.bytes());
+        assertEquals(sample.position(), decoded.position());
+        assertEquals(0, buffer.remaining(), "The whole encoded event should be read");
+        assertSame(codec, EventCodec.ofRecord(Sample.class), "The codec should be cached");
+    }
+
+    @Test
+    void testSelfReferentialRecordCodec() {
+        final EventCodec<Node> codec = EventCodec.ofRecord(Node.class);
+        final Node node = new Node(1, new Node(2, new Node(3, null)));
+        final ByteBuffer buffer = ByteBuffer.allocate(64);
+
+        codec.encode(node, buffer);
+        assertEquals(node, codec.decode(buffer.flip()));
+        assertEquals(0, buffer.remaining(), "The whole encoded event should be read");
+    }
+
+    @Test
+    void testRegistry() {
+        final EventCodecRegistry registry = EventCodecRegistry.create();
+        final EventCodec<Position> codec = EventCodec.ofRecord(Position.class);
+
+        registry.register(7, codec);
+        assertSame(codec, registry.codec(Position.class));
+        assertSame(codec, registry.codec(7));
+        assertEquals(7, registry.typeId(Position.class));
+        assertEquals(-1, registry.typeId(Sample.class));
+        assertNull(registry.codec(8));
+
+        assertThrows(IllegalArgumentException.class, () -> registry.register(7, EventCodec.ofRecord(Sample.class)));
+        assertThrows(IllegalArgumentException.class, () -> registry.register(8, codec));
+        assertThrows(IllegalArgumentException.class, () -> registry.register(EventCodecRegistry.MAX_TYPE_ID + 1, codec));
+    }
+
+    enum Mode {
+        FAST,
+        SLOW
+    }
+
+    record Position(int x, int y) {
+
+    }
+
+    record Node(int value, Node next) {
+
+    }
+
+    record Sample(
+        int id,
+        long time,
+        double value,
+        boolean flag,
+        char character,
+        String name,
+        String missing,
+        Integer boxed,
+        Mode mode,
+        UUID uuid,
+        byte[] bytes,
+        Position position
+    ) {
+
+    }
+}